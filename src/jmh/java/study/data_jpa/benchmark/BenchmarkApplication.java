@@ -0,0 +1,54 @@
+package study.data_jpa.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.DataJpaApplication;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.TeamJpaRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+// 벤치마크용 애플리케이션 컨텍스트
+// application.yml 설정은 그대로 쓰고, DB 만 벤치마크마다 새로 만든 인메모리 H2 로 바꾼다.
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        return run("none", args);
+    }
+
+    // 임의의 포트로 Tomcat 까지 띄운다. 포트는 ((WebServerApplicationContext) context).getWebServer().getPort()
+    static ConfigurableApplicationContext startServer(String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0"));
+        arguments.addAll(Arrays.asList(args));
+        return run("servlet", arguments.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext run(String webApplicationType, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.main.web-application-type=" + webApplicationType,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=off"));
+        arguments.addAll(Arrays.asList(args));
+        return new SpringApplicationBuilder(DataJpaApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    // member0 ~ member{count-1} 를 teamCount 개의 팀에 나눠 저장한다. 나이는 i % ageCount
+    static List<Team> seed(ConfigurableApplicationContext context, int count, int teamCount, int ageCount) {
+        List<Team> teams = IntStream.range(0, teamCount).mapToObj(i -> new Team("team" + i)).toList();
+        context.getBean(TeamJpaRepository.class).saveAllBatched(teams.stream(), 100);
+        context.getBean(MemberJpaRepository.class).saveAllBatched(
+                IntStream.range(0, count).mapToObj(i -> new Member("member" + i, i % ageCount, teams.get(i % teamCount))), 1000);
+        return teams;
+    }
+}
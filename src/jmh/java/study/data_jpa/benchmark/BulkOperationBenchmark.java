@@ -0,0 +1,113 @@
+package study.data_jpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// 100,000 명을 옮기거나 지우는 비용
+// 벌크 JPQL(moveMembers / deleteByTeam) vs 엔티티를 전부 로딩해서 changeTeam / remove
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class BulkOperationBenchmark {
+
+    private static final int MEMBER_COUNT = 100_000;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate transactionTemplate;
+    EntityManager em;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        em = context.getBean(EntityManager.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // 매 실행마다 MEMBER_COUNT 명이 있는 from 팀과 빈 to 팀을 새로 만든다.
+    @State(Scope.Thread)
+    public static class Teams {
+
+        Team from;
+        Team to;
+
+        @Setup(Level.Invocation)
+        public void seed(BulkOperationBenchmark benchmark) {
+            List<Team> teams = List.of(new Team("from"), new Team("to"));
+            benchmark.context.getBean(TeamJpaRepository.class).saveAllBatched(teams.stream(), 2);
+            from = teams.get(0);
+            to = teams.get(1);
+            benchmark.context.getBean(MemberJpaRepository.class).saveAllBatched(
+                    IntStream.range(0, MEMBER_COUNT).mapToObj(i -> new Member("member" + i, i % 50, from)), 1000);
+        }
+
+        @TearDown(Level.Invocation)
+        public void clear(BulkOperationBenchmark benchmark) {
+            benchmark.memberRepository.deleteAllInBatch();
+        }
+    }
+
+    @Benchmark
+    public int bulkMove(Teams teams) {
+        return memberRepository.moveMembers(teams.from, teams.to);
+    }
+
+    @Benchmark
+    public int loadAndMove(Teams teams) {
+        return transactionTemplate.execute(status -> {
+            Team to = em.find(Team.class, teams.to.getId());
+            List<Member> members = findMembers(teams.from);
+            members.forEach(member -> member.changeTeam(to));
+            return members.size();
+        });
+    }
+
+    @Benchmark
+    public int bulkDelete(Teams teams) {
+        return memberRepository.deleteByTeam(teams.from);
+    }
+
+    @Benchmark
+    public int loadAndDelete(Teams teams) {
+        return transactionTemplate.execute(status -> {
+            List<Member> members = findMembers(teams.from);
+            members.forEach(em::remove);
+            return members.size();
+        });
+    }
+
+    private List<Member> findMembers(Team team) {
+        return em.createQuery("select m from Member m where m.team = :team", Member.class)
+                .setParameter("team", team)
+                .getResultList();
+    }
+}
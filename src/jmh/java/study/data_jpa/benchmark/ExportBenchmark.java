@@ -0,0 +1,52 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.service.MemberExportService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// 전체 회원 NDJSON 내보내기 - JPQL 생성자 표현식 + writeObject vs JDBC 컬럼 값을 JsonGenerator 로 바로 쓰기
+// 응답 본문은 버리고(nullOutputStream) 조회 + 직렬화 비용만 본다.
+// ./gradlew jmh -PjmhIncludes=ExportBenchmark -PjmhProfilers=gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportBenchmark {
+
+    private static final int MEMBER_COUNT = 100_000;
+
+    ConfigurableApplicationContext context;
+    MemberExportService memberExportService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, MEMBER_COUNT, 100, 50);
+        memberExportService = context.getBean(MemberExportService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long jpqlConstructorExpression() throws IOException {
+        return memberExportService.exportNdjsonByJpql(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long jdbcColumns() throws IOException {
+        return memberExportService.exportNdjson(OutputStream.nullOutputStream());
+    }
+}
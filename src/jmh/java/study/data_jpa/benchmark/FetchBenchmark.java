@@ -0,0 +1,62 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 연관된 팀을 함께 읽는 방법 비교
+// fetch join vs @EntityGraph, DTO 직접 조회 vs 엔티티 조회 후 MemberDto 로 변환
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FetchBenchmark {
+
+    private static final int MEMBER_COUNT = 10_000;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, MEMBER_COUNT, 100, 50);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> fetchJoin() {
+        return memberRepository.findMemberFetchJoin();
+    }
+
+    @Benchmark
+    public List<Member> entityGraphFindAll() {
+        return memberRepository.findAll();
+    }
+
+    @Benchmark
+    public List<MemberDto> dtoProjection() {
+        return memberRepository.findMemberDto();
+    }
+
+    @Benchmark
+    public List<MemberDto> entityToDto() {
+        return memberRepository.findAll().stream().map(MemberDto::new).toList();
+    }
+}
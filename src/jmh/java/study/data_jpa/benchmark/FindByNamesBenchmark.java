@@ -0,0 +1,74 @@
+package study.data_jpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// in 절 파라미터 개수에 따른 findByNames 비용
+// singleInClause 는 이름 목록 전체를 in 절 하나로 넘기던 이전 방식이다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FindByNamesBenchmark {
+
+    private static final int MEMBER_COUNT = 50_000;
+
+    @Param({"10", "100", "1000", "10000"})
+    int nameCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    EntityManagerFactory emf;
+    List<String> names;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, MEMBER_COUNT, 100, 50);
+        memberRepository = context.getBean(MemberRepository.class);
+        emf = context.getBean(EntityManagerFactory.class);
+
+        Random random = new Random(42);
+        names = IntStream.range(0, nameCount)
+                .mapToObj(i -> "member" + random.nextInt(MEMBER_COUNT))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findByNames() {
+        return memberRepository.findByNames(names);
+    }
+
+    @Benchmark
+    public List<Member> singleInClause() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("select m from Member m where m.username in :names", Member.class)
+                    .setParameter("names", names)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+}
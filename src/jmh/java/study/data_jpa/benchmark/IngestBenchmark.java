@@ -0,0 +1,70 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.dto.MemberCreateCommand;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.service.MemberIngestService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 회원 가입이 몰릴 때 - 요청마다 save(트랜잭션 + flush + 커밋) vs MemberIngestService 로 모아서 배치 트랜잭션
+// 두 방식 모두 커밋이 끝난 뒤에 반환하므로, SampleTime 의 p99 가 곧 가입 응답(ack) 지연이다.
+// ./gradlew jmh -PjmhIncludes=IngestBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class IngestBenchmark {
+
+    @Param({"direct", "writeBehind"})
+    String mode;
+
+    ConfigurableApplicationContext context;
+    MemberJpaRepository memberJpaRepository;
+    TeamRepository teamRepository;
+    TransactionTemplate transactionTemplate;
+    MemberIngestService ingest;
+    Team team;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("--app.ingest.enabled=" + mode.equals("writeBehind"));
+        team = BenchmarkApplication.seed(context, 0, 1, 1).get(0);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        teamRepository = context.getBean(TeamRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        ingest = context.getBeanProvider(MemberIngestService.class).getIfAvailable();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long signup() {
+        String username = "signup" + sequence.incrementAndGet();
+        if (ingest != null) {
+            return ingest.submit(new MemberCreateCommand(username, 20, team.getId())).join();
+        }
+        // @Transactional 가입 서비스를 요청마다 호출하는 것과 같다. (트랜잭션 + flush + 커밋이 요청마다)
+        return transactionTemplate.execute(status -> memberJpaRepository.save(
+                new Member(username, 20, teamRepository.getReferenceById(team.getId()))).getId());
+    }
+}
@@ -0,0 +1,65 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// /members 부하 테스트 - Tomcat 플랫폼 스레드 풀(기본 200개) vs 가상 스레드
+// 클라이언트 스레드(256)가 Tomcat 스레드 수보다 많고 커넥션 풀(10)보다 훨씬 많은 상황에서
+// Throughput 은 초당 처리량, SampleTime 은 p99 등 지연 시간 분포를 보여준다.
+// ./gradlew jmh -PjmhIncludes=MembersLoadBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(256)
+public class MembersLoadBenchmark {
+
+    private static final int MEMBER_COUNT = 10_000;
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.startServer("--spring.threads.virtual.enabled=" + virtualThreads);
+        BenchmarkApplication.seed(context, MEMBER_COUNT, 100, 50);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?page=10&size=20")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int members() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /members returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
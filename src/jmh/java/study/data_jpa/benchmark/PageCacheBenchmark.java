@@ -0,0 +1,85 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// 자주 보는 몇 개 페이지를 반복해서 요청할 때 - 응답 캐시 없이 vs 있을 때 (app.page-cache.enabled)
+// full 은 매번 본문까지 받고, conditional 은 전에 받은 ETag 로 If-None-Match 를 보내 304 를 받는다.
+// ./gradlew jmh -PjmhIncludes=PageCacheBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class PageCacheBenchmark {
+
+    private static final int MEMBER_COUNT = 10_000;
+    private static final int HOT_PAGES = 5;
+
+    @Param({"false", "true"})
+    boolean pageCache;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    HttpRequest[] requests;
+    HttpRequest[] conditionalRequests;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        context = BenchmarkApplication.startServer("--app.page-cache.enabled=" + pageCache);
+        BenchmarkApplication.seed(context, MEMBER_COUNT, 100, 50);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        requests = IntStream.range(0, HOT_PAGES)
+                .mapToObj(page -> HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + port + "/members?page=" + page + "&size=20&sort=id,desc")).build())
+                .toArray(HttpRequest[]::new);
+        conditionalRequests = new HttpRequest[HOT_PAGES];
+        for (int i = 0; i < HOT_PAGES; i++) {
+            String etag = client.send(requests[i], HttpResponse.BodyHandlers.discarding()).headers().firstValue("ETag").orElseThrow();
+            conditionalRequests[i] = HttpRequest.newBuilder(requests[i].uri()).header("If-None-Match", etag).build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int full() throws IOException, InterruptedException {
+        return send(requests[ThreadLocalRandom.current().nextInt(HOT_PAGES)], 200);
+    }
+
+    @Benchmark
+    public int conditional() throws IOException, InterruptedException {
+        return send(conditionalRequests[ThreadLocalRandom.current().nextInt(HOT_PAGES)], 304);
+    }
+
+    private int send(HttpRequest request, int expected) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expected) {
+            throw new IllegalStateException("GET " + request.uri() + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
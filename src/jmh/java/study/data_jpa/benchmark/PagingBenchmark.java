@@ -0,0 +1,94 @@
+package study.data_jpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 순수 JPA 페이징(findByPage + totalCount) vs 스프링 데이터 페이징(findByAge(Pageable))
+// 그리고 /members 의 OFFSET 페이징 vs /members/scroll 의 키셋 페이징을 페이지 깊이별로 비교한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PagingBenchmark {
+
+    // 가장 깊은 페이지(10,000 * 20 = 200,000 번째)도 나이 조건 조회에서 비지 않도록 나이별 250,000 명
+    private static final int MEMBER_COUNT = 1_000_000;
+    private static final int AGE_COUNT = 4;
+    private static final int PAGE_SIZE = 20;
+    private static final int AGE = 1;
+
+    @Param({"0", "100", "1000", "10000"})
+    int page;
+
+    ConfigurableApplicationContext context;
+    MemberJpaRepository memberJpaRepository;
+    MemberRepository memberRepository;
+    ScrollPosition keysetPosition;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, MEMBER_COUNT, 100, AGE_COUNT);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        keysetPosition = page == 0 ? ScrollPosition.keyset() : ScrollPosition.forward(Map.of("id", lastIdBefore(page)));
+    }
+
+    // OFFSET 페이지 page 직전까지 읽었을 때의 마지막 id - 키셋 페이징이 같은 위치에서 시작하도록
+    private Long lastIdBefore(int page) {
+        EntityManager em = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            return em.createQuery("select m.id from Member m order by m.id", Long.class)
+                    .setFirstResult(page * PAGE_SIZE - 1)
+                    .setMaxResults(1)
+                    .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void jpaFindByPageAndTotalCount(Blackhole bh) {
+        bh.consume(memberJpaRepository.findByPage(AGE, page * PAGE_SIZE, PAGE_SIZE));
+        bh.consume(memberJpaRepository.totalCount(AGE));
+    }
+
+    @Benchmark
+    public Object springDataFindByAge() {
+        return memberRepository.findByAge(AGE, PageRequest.of(page, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "username")));
+    }
+
+    @Benchmark
+    public Object offsetMemberDtoPage() {
+        return memberRepository.findMemberDto(PageRequest.of(page, PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Object keysetWindow() {
+        return memberRepository.findAllByOrderByIdAsc(keysetPosition, Limit.of(PAGE_SIZE));
+    }
+}
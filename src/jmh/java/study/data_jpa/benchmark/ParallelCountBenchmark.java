@@ -0,0 +1,83 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.support.PageCountCache;
+import study.data_jpa.repository.support.ParallelPageExecutor;
+import study.data_jpa.service.MemberPageService;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// findByAge(Pageable) 한 페이지의 지연 시간
+// Spring Data 기본(content -> count 순서대로) vs count 병렬 실행 vs count 캐시
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelCountBenchmark {
+
+    private static final int AGE_COUNT = 4;
+    private static final int AGE = 1;
+
+    @Param({"100000", "1000000"})
+    int memberCount;
+
+    @Param({"0", "1000"})
+    int page;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberPageService parallelService;
+    MemberPageService cachedService;
+    Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, memberCount, 100, AGE_COUNT);
+        memberRepository = context.getBean(MemberRepository.class);
+        JdbcAdmissionLimiter admissionLimiter = context.getBean(JdbcAdmissionLimiter.class);
+
+        SimpleAsyncTaskExecutor countExecutor = new SimpleAsyncTaskExecutor("page-count-");
+        countExecutor.setVirtualThreads(true);
+        parallelService = new MemberPageService(memberRepository,
+                new ParallelPageExecutor(new PageCountCache(Duration.ZERO, 1), countExecutor, true, admissionLimiter));
+        cachedService = new MemberPageService(memberRepository,
+                new ParallelPageExecutor(new PageCountCache(Duration.ofHours(1), 100), countExecutor, true, admissionLimiter));
+        pageable = PageRequest.of(page, 20, Sort.by(Sort.Direction.DESC, "username"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object sequentialCount() {
+        return memberRepository.findByAge(AGE, pageable);
+    }
+
+    @Benchmark
+    public Object parallelCount() {
+        return parallelService.findByAge(AGE, pageable);
+    }
+
+    @Benchmark
+    public Object cachedCount() {
+        return cachedService.findByAge(AGE, pageable);
+    }
+}
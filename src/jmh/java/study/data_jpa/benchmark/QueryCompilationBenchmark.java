@@ -0,0 +1,68 @@
+package study.data_jpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.entity.Member;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 호출마다 JPQL 문자열로 쿼리를 만들 때(createQuery) vs 기동할 때 미리 만들어 둔 @NamedQuery 를 쓸 때의 호출당 비용
+// planCache=false 는 hibernate.query.plan_cache_enabled=false 로, 매번 JPQL 파싱 + SQL 변환을 한다.
+// 데이터는 적게 두어 쿼리 실행보다 쿼리 준비 비용이 드러나게 한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryCompilationBenchmark {
+
+    private static final int AGE = 1;
+
+    @Param({"true", "false"})
+    boolean planCache;
+
+    ConfigurableApplicationContext context;
+    EntityManager em;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("--spring.jpa.properties.hibernate.query.plan_cache_enabled=" + planCache);
+        BenchmarkApplication.seed(context, 100, 10, 10);
+        em = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        em.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> adHocQuery() {
+        List<Member> members = em.createQuery("select m from Member m where m.age = :age order by m.username desc", Member.class)
+                .setParameter("age", AGE)
+                .setMaxResults(3)
+                .getResultList();
+        em.clear();
+        return members;
+    }
+
+    @Benchmark
+    public List<Member> namedQuery() {
+        List<Member> members = em.createNamedQuery("Member.findPageByAge", Member.class)
+                .setParameter("age", AGE)
+                .setMaxResults(3)
+                .getResultList();
+        em.clear();
+        return members;
+    }
+}
@@ -0,0 +1,72 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import study.data_jpa.controller.MemberSortPolicy;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// /members 에 들어올 수 있는 비싼 정렬 요청 - 그대로 조회할 때 vs MemberSortPolicy 를 거칠 때
+// teamNameDeepPage: ?sort=team.name&size=2000&page=30~49 (스프링 데이터 기본 최대 size 2000). 정책을 거치면 id 순 100 건으로 바뀐다.
+// usernameDeepPage: ?sort=username,desc&page=900~1099 - 정책을 거치면 username, age, id 로 풀려 인덱스 순서대로 읽는다.
+// 정책은 비교를 위해 거절하지 않고 바꾸도록(reject-disallowed=false) 띄운다.
+// H2 는 같은 쿼리를 같은 파라미터로 다시 실행하면 테이블이 안 바뀐 동안 이전 결과를 재사용하므로, 페이지를 매번 바꿔서 요청한다.
+// ./gradlew jmh -PjmhIncludes=SortBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SortBenchmark {
+
+    private static final int MEMBER_COUNT = 100_000;
+
+    @Param({"false", "true"})
+    boolean sortPolicy;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberSortPolicy memberSortPolicy;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("--app.member-sort.reject-disallowed=false");
+        BenchmarkApplication.seed(context, MEMBER_COUNT, 1000, 50);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberSortPolicy = context.getBean(MemberSortPolicy.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object teamNameDeepPage() {
+        return memberRepository.findMemberDtoContent(pageable(PageRequest.of(randomPage(30, 50), 2000, Sort.by("team.name"))));
+    }
+
+    @Benchmark
+    public Object usernameDeepPage() {
+        return memberRepository.findMemberDtoContent(pageable(PageRequest.of(randomPage(900, 1100), 20, Sort.by(Sort.Direction.DESC, "username"))));
+    }
+
+    private static int randomPage(int from, int to) {
+        return ThreadLocalRandom.current().nextInt(from, to);
+    }
+
+    private Pageable pageable(Pageable request) {
+        return sortPolicy ? memberSortPolicy.apply(request) : request;
+    }
+}
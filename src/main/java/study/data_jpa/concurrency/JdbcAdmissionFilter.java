@@ -0,0 +1,34 @@
+package study.data_jpa.concurrency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// DB 를 쓰는 요청은 허가를 받은 뒤에 컨트롤러로 넘긴다. 기다리다 시간이 지나면 503 + Retry-After 로 돌려보낸다.
+@RequiredArgsConstructor
+public class JdbcAdmissionFilter extends OncePerRequestFilter {
+
+    private final JdbcAdmissionLimiter limiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        JdbcAdmissionLimiter.Permit permit;
+        try {
+            permit = limiter.acquire();
+        } catch (JdbcAdmissionTimeoutException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+            return;
+        }
+        try (permit) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
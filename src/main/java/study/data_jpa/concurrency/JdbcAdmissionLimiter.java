@@ -0,0 +1,94 @@
+package study.data_jpa.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// DB 를 쓰는 작업의 동시 실행 수를 커넥션 풀 크기로 제한한다.
+// 가상 스레드는 요청마다 하나씩 얼마든지 만들어지므로, 제한이 없으면 수천 개의 스레드가 커넥션 풀 앞에서 줄을 서다가
+// connectionTimeout 으로 한꺼번에 실패한다. 여기서 먼저 줄을 세우고, 대기 시간은 jdbc.admission.wait 로 기록한다.
+public class JdbcAdmissionLimiter {
+
+    private final Semaphore semaphore;
+    private final Duration maxWait;
+    private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public JdbcAdmissionLimiter(int permits, Duration maxWait, MeterRegistry registry) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        this.semaphore = new Semaphore(permits, true);
+        this.maxWait = maxWait;
+        this.waitTimer = Timer.builder("jdbc.admission.wait")
+                .description("Time spent waiting for a JDBC admission permit")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("jdbc.admission.rejected")
+                .description("Callers that gave up waiting for a JDBC admission permit")
+                .register(registry);
+        Gauge.builder("jdbc.admission.waiting", semaphore, Semaphore::getQueueLength)
+                .description("Callers currently waiting for a JDBC admission permit")
+                .register(registry);
+        Gauge.builder("jdbc.admission.available", semaphore, Semaphore::availablePermits)
+                .register(registry);
+    }
+
+    // try (Permit permit = limiter.acquire()) { ... } 로 쓴다.
+    // 이미 허가를 가진 스레드가 다시 요청하면(필터 안에서 서비스가 또 요청하는 경우) 기다리지 않고 통과시킨다.
+    public Permit acquire() {
+        if (holding.get() != null) {
+            return Permit.NESTED;
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            throw new JdbcAdmissionTimeoutException(maxWait);
+        }
+        holding.set(Boolean.TRUE);
+        return () -> {
+            holding.remove();
+            semaphore.release();
+        };
+    }
+
+    // 허가를 가진 요청이 다른 스레드(= 다른 커넥션)에서 DB 작업을 하나 더 할 때 (ParallelPageExecutor 의 count 등)
+    // 같은 스레드의 중첩 호출과 달리 커넥션을 하나 더 쓰므로 허가도 하나 더 받는다.
+    // 기다리지 않는다 - 허가를 가진 채로 또 기다리면 모든 요청이 서로의 허가를 기다리며 멈출 수 있다. 없으면 빈 Optional
+    // 돌려받은 허가는 작업을 실행하는 스레드에서 닫는다.
+    public Optional<Permit> tryAcquireExtra() {
+        if (!semaphore.tryAcquire()) {
+            return Optional.empty();
+        }
+        return Optional.of(semaphore::release);
+    }
+
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        Permit NESTED = () -> {
+        };
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,40 @@
+package study.data_jpa.concurrency;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+// 작업마다 실행하는 스레드에서 JdbcAdmissionLimiter 허가를 받고 실행하는 실행기 (@Async 리포지토리 호출용)
+// CompletableFuture 를 돌려주는 컨트롤러는 요청 스레드가 바로 끝나 필터의 허가를 반납하므로,
+// 비동기 조회가 쓰는 커넥션도 여기서 같은 허가로 세어야 요청 + 비동기 조회가 풀 크기를 넘지 않는다.
+// @Async 는 반환 타입과 상관없이 submit / submitCompletable 로 들어오므로 이 둘을 감싼다.
+// 허가를 기다리다 시간이 지나면 JdbcAdmissionTimeoutException 으로 Future 가 실패한다.
+public class JdbcAdmissionTaskExecutor extends SimpleAsyncTaskExecutor {
+
+    private final JdbcAdmissionLimiter limiter;
+
+    public JdbcAdmissionTaskExecutor(String threadNamePrefix, JdbcAdmissionLimiter limiter) {
+        super(threadNamePrefix);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return super.submit(admitted(task));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submitCompletable(Callable<T> task) {
+        return super.submitCompletable(admitted(task));
+    }
+
+    private <T> Callable<T> admitted(Callable<T> task) {
+        return () -> {
+            try (JdbcAdmissionLimiter.Permit permit = limiter.acquire()) {
+                return task.call();
+            }
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package study.data_jpa.concurrency;
+
+import java.time.Duration;
+
+// 정해진 시간 안에 DB 작업 허가를 받지 못했을 때
+public class JdbcAdmissionTimeoutException extends RuntimeException {
+
+    public JdbcAdmissionTimeoutException(Duration maxWait) {
+        super("no JDBC admission permit within " + maxWait);
+    }
+}
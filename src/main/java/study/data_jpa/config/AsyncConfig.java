@@ -0,0 +1,38 @@
+package study.data_jpa.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+import study.data_jpa.concurrency.JdbcAdmissionTaskExecutor;
+
+// @Async("repositoryExecutor") 가 붙은 리포지토리 메서드를 실행하는 전용 실행기
+// 호출마다 스레드(가상 스레드)를 새로 만들고, 동시에 실행하는 수는 repositoryConcurrency 로 제한한다.
+// 제한에 걸리면 호출한 스레드가 자리가 날 때까지 기다리므로 커넥션 풀을 비동기 호출이 전부 차지하지 않는다.
+// 실행할 때는 요청과 같은 JdbcAdmissionLimiter 허가를 받으므로, 요청 + 비동기 조회를 합친 DB 작업 수도 풀 크기를 넘지 않는다.
+@Configuration
+@EnableAsync
+@EnableConfigurationProperties(AsyncProperties.class)
+public class AsyncConfig {
+
+    // Executor 빈을 하나라도 등록하면 스프링 부트가 applicationTaskExecutor 를 만들지 않으므로 같은 설정으로 직접 등록한다.
+    // MVC 비동기 응답(StreamingResponseBody, CompletableFuture)과 이름 없는 @Async 가 이 실행기를 쓴다.
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public SimpleAsyncTaskExecutor applicationTaskExecutor(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public SimpleAsyncTaskExecutor repositoryExecutor(AsyncProperties properties, JdbcAdmissionLimiter jdbcAdmissionLimiter) {
+        SimpleAsyncTaskExecutor executor = new JdbcAdmissionTaskExecutor("repository-", jdbcAdmissionLimiter);
+        executor.setVirtualThreads(properties.isVirtualThreads());
+        executor.setConcurrencyLimit(properties.getRepositoryConcurrency());
+        return executor;
+    }
+}
@@ -0,0 +1,15 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// application.yml 의 app.async 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.async")
+public class AsyncProperties {
+
+    private int repositoryConcurrency = 8; // 동시에 실행할 수 있는 비동기 리포지토리 호출 수 (커넥션 풀보다 작게)
+    private boolean virtualThreads = true;
+}
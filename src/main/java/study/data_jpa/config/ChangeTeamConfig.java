@@ -0,0 +1,23 @@
+package study.data_jpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.service.MemberTeamService;
+
+@Configuration
+@EnableConfigurationProperties(ChangeTeamProperties.class)
+public class ChangeTeamConfig {
+
+    @Bean
+    public MemberTeamService memberTeamService(PlatformTransactionManager transactionManager,
+                                               MemberRepository memberRepository, TeamRepository teamRepository,
+                                               ChangeTeamProperties properties, MeterRegistry meterRegistry) {
+        return new MemberTeamService(transactionManager, memberRepository, teamRepository,
+                properties.getMaxAttempts(), properties.getInitialBackoff(), properties.getMaxBackoff(), meterRegistry);
+    }
+}
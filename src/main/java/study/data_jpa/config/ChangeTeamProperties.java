@@ -0,0 +1,18 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// application.yml 의 app.change-team 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.change-team")
+public class ChangeTeamProperties {
+
+    private int maxAttempts = 5; // 낙관적 락 충돌 시 처음 시도를 포함한 최대 시도 횟수
+    private Duration initialBackoff = Duration.ofMillis(5); // 재시도마다 2배씩 늘린다.
+    private Duration maxBackoff = Duration.ofMillis(100);
+}
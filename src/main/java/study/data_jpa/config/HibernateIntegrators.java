@@ -0,0 +1,29 @@
+package study.data_jpa.config;
+
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// hibernate.integrator_provider 는 값이 하나뿐이라 HibernatePropertiesCustomizer 마다 put 하면 마지막 것만 남는다.
+// 이미 들어 있는 IntegratorProvider 의 목록 뒤에 붙여서 여러 설정이 같이 등록할 수 있게 한다.
+final class HibernateIntegrators {
+
+    private HibernateIntegrators() {
+    }
+
+    static void add(Map<String, Object> properties, Integrator integrator) {
+        IntegratorProvider previous = (IntegratorProvider) properties.get(JpaSettings.INTEGRATOR_PROVIDER);
+        properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> {
+            List<Integrator> integrators = new ArrayList<>();
+            if (previous != null) {
+                integrators.addAll(previous.getIntegrators());
+            }
+            integrators.add(integrator);
+            return integrators;
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package study.data_jpa.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// hibernate-micrometer 가 hibernate.* 메트릭(hibernate.cache.query.plan{result=hit|miss} 등)을 등록하고,
+// 여기서는 대시보드에서 바로 볼 수 있도록 쿼리 플랜 캐시 적중률만 따로 계산해서 올린다.
+@Configuration
+public class HibernateMetricsConfig {
+
+    @Bean
+    public MeterBinder queryPlanCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> Gauge.builder("hibernate.cache.query.plan.hit.ratio", statistics, HibernateMetricsConfig::hitRatio)
+                .description("Query plan cache hits / (hits + misses) since startup")
+                .register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long total = hits + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
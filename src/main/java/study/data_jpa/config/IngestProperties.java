@@ -0,0 +1,22 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// application.yml 의 app.ingest 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.ingest")
+public class IngestProperties {
+
+    private boolean enabled = false;
+    private int queueCapacity = 10_000;
+    private int batchSize = 500; // 한 트랜잭션에 저장할 최대 회원 수
+    // 첫 요청을 받은 뒤 배치를 더 채우려고 기다리는 최대 시간
+    // 0 이면 기다리지 않고, 앞 배치를 커밋하는 동안 쌓인 요청을 다음 배치로 묶는다. (요청이 몰릴수록 배치가 커진다)
+    private Duration maxDelay = Duration.ZERO;
+    private Duration offerTimeout = Duration.ofSeconds(1); // 큐가 가득 찼을 때 submit 이 기다리는 최대 시간
+}
@@ -0,0 +1,46 @@
+package study.data_jpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.data_jpa.concurrency.JdbcAdmissionFilter;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+// spring.threads.virtual.enabled=true 일 때 Tomcat 과 @Async/StreamingResponseBody 실행기가 가상 스레드를 쓴다.
+// 가상 스레드는 개수 제한이 없으므로 커넥션 풀 크기만큼만 DB 작업에 들어가도록 JdbcAdmissionLimiter 로 막는다.
+@Configuration
+@EnableConfigurationProperties(JdbcAdmissionProperties.class)
+public class JdbcAdmissionConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public JdbcAdmissionLimiter jdbcAdmissionLimiter(JdbcAdmissionProperties properties, DataSource dataSource,
+                                                     MeterRegistry meterRegistry) throws SQLException {
+        int permits = properties.getPermits() > 0 ? properties.getPermits() : poolSize(dataSource);
+        return new JdbcAdmissionLimiter(permits, properties.getMaxWait(), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JdbcAdmissionFilter> jdbcAdmissionFilter(JdbcAdmissionLimiter limiter,
+                                                                          JdbcAdmissionProperties properties) {
+        FilterRegistrationBean<JdbcAdmissionFilter> registration = new FilterRegistrationBean<>(new JdbcAdmissionFilter(limiter));
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        return registration;
+    }
+
+    private static int poolSize(DataSource dataSource) throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            int size = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            // 설정하지 않으면 풀이 시작되기 전까지 -1 이고, 시작할 때 Hikari 기본값 10 으로 바뀐다.
+            return size > 0 ? size : HIKARI_DEFAULT_POOL_SIZE;
+        }
+        throw new IllegalStateException("app.jdbc-admission.permits must be set for " + dataSource.getClass().getName());
+    }
+}
@@ -0,0 +1,19 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+// application.yml 의 app.jdbc-admission 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.jdbc-admission")
+public class JdbcAdmissionProperties {
+
+    private int permits; // 0 이면 커넥션 풀의 maximumPoolSize 를 쓴다.
+    private Duration maxWait = Duration.ofSeconds(5);
+    private List<String> urlPatterns = List.of("/members", "/members/*", "/teams");
+}
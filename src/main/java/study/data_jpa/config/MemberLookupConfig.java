@@ -0,0 +1,46 @@
+package study.data_jpa.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.data_jpa.repository.support.MemberLookupCache;
+import study.data_jpa.repository.support.MemberLookupCacheListener;
+
+// username 조회 캐시 설정
+// cache.gets{cache=memberLookup, result=hit|miss}, cache.evictions, cache.size 등은 CaffeineCacheMetrics 가 올리고,
+// 적중률과 없는 username 에 대한 적중 수는 여기서 따로 올린다.
+@Configuration
+@EnableConfigurationProperties(MemberLookupProperties.class)
+public class MemberLookupConfig {
+
+    private static final String CACHE_NAME = "memberLookup";
+
+    @Bean
+    public MemberLookupCache memberLookupCache(MemberLookupProperties properties) {
+        return new MemberLookupCache(properties.getTtl(), properties.getNegativeTtl(), properties.getMaximumWeight(),
+                properties.getInvalidateAllThreshold());
+    }
+
+    // Member 의 @EntityListeners 로 Hibernate 가 가져다 쓴다.
+    @Bean
+    public MemberLookupCacheListener memberLookupCacheListener(MemberLookupCache memberLookupCache) {
+        return new MemberLookupCacheListener(memberLookupCache);
+    }
+
+    @Bean
+    public MeterBinder memberLookupCacheMetrics(MemberLookupCache memberLookupCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, memberLookupCache.getNativeCache(), CACHE_NAME);
+            Gauge.builder("member.lookup.cache.hit.ratio", memberLookupCache, cache -> cache.getNativeCache().stats().hitRate())
+                    .description("username lookup cache hits / requests since startup")
+                    .register(registry);
+            FunctionCounter.builder("member.lookup.cache.negative.hits", memberLookupCache, MemberLookupCache::getNegativeHitCount)
+                    .description("lookups answered from a cached 'no such username' entry")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// application.yml 의 app.member-lookup 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.member-lookup")
+public class MemberLookupProperties {
+
+    private Duration ttl = Duration.ofMinutes(5);
+    private Duration negativeTtl = Duration.ofSeconds(30); // 없는 username 은 가입하면 바로 보여야 하므로 짧게
+    private long maximumWeight = 16 * 1024 * 1024; // 엔트리 크기 추정치(byte)의 합
+    private int invalidateAllThreshold = 1000; // 한 트랜잭션에서 이보다 많은 회원이 바뀌면 커밋 후 캐시를 통째로 비운다.
+}
@@ -0,0 +1,16 @@
+package study.data_jpa.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.data_jpa.controller.MemberSortPolicy;
+
+@Configuration
+@EnableConfigurationProperties(MemberSortProperties.class)
+public class MemberSortConfig {
+
+    @Bean
+    public MemberSortPolicy memberSortPolicy(MemberSortProperties properties) {
+        return new MemberSortPolicy(properties.getAllowed(), properties.getMaxPageSize(), properties.isRejectDisallowed());
+    }
+}
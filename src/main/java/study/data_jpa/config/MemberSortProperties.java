@@ -0,0 +1,22 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// application.yml 의 app.member-sort 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.member-sort")
+public class MemberSortProperties {
+
+    // 정렬 키 -> 실제로 정렬할 Member 필드 (인덱스 컬럼 순서대로). 여기에 없는 키로는 정렬할 수 없다.
+    // 기본값을 두면 yml 의 맵과 합쳐져서 yml 에서 키를 지워도 허용되므로, 목록은 application.yml 에만 둔다.
+    private Map<String, List<String>> allowed = new LinkedHashMap<>();
+    private int maxPageSize = 100;
+    private boolean rejectDisallowed = true; // false 면 허용하지 않은 정렬은 빼고 id 순으로 조회한다.
+}
@@ -0,0 +1,47 @@
+package study.data_jpa.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.data_jpa.controller.MemberPageCache;
+import study.data_jpa.repository.support.DataVersion;
+import study.data_jpa.repository.support.DataVersionListener;
+import study.data_jpa.repository.support.PageCountCache;
+
+// GET /members 응답 캐시 설정
+// Member/Team 쓰기가 커밋되면 DataVersion 이 올라가고, 그때 캐시해 둔 count 도 같이 비운다.
+// (그러지 않으면 새로 만든 페이지가 count 캐시의 지난 total 을 들고 다음 쓰기 전까지 캐시된다)
+@Configuration
+@EnableConfigurationProperties(PageCacheProperties.class)
+public class PageCacheConfig {
+
+    @Bean
+    public DataVersion dataVersion(PageCountCache pageCountCache) {
+        DataVersion dataVersion = new DataVersion();
+        dataVersion.onChange(pageCountCache::invalidateAll);
+        return dataVersion;
+    }
+
+    // Member / Team 의 @EntityListeners 로 Hibernate 가 가져다 쓴다.
+    @Bean
+    public DataVersionListener dataVersionListener(DataVersion dataVersion) {
+        return new DataVersionListener(dataVersion);
+    }
+
+    @Bean
+    public MemberPageCache memberPageCache(PageCacheProperties properties, DataVersion dataVersion, ObjectMapper objectMapper) {
+        return new MemberPageCache(properties.isEnabled(), properties.getMaximumWeight(), dataVersion, objectMapper);
+    }
+
+    @Bean
+    public MeterBinder memberPageCacheMetrics(MemberPageCache memberPageCache) {
+        return registry -> {
+            if (memberPageCache.getNativeCache() != null) {
+                CaffeineCacheMetrics.monitor(registry, memberPageCache.getNativeCache(), "memberPage");
+            }
+        };
+    }
+}
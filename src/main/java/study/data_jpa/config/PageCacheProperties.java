@@ -0,0 +1,15 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// application.yml 의 app.page-cache 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.page-cache")
+public class PageCacheProperties {
+
+    private boolean enabled = true; // false 면 저장하지 않고 요청마다 새로 만든다. (ETag/304 는 그대로)
+    private long maximumWeight = 32 * 1024 * 1024; // 캐시한 응답 본문 크기(byte)의 합
+}
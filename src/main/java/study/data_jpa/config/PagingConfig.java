@@ -0,0 +1,29 @@
+package study.data_jpa.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+import study.data_jpa.repository.support.PageCountCache;
+import study.data_jpa.repository.support.ParallelPageExecutor;
+
+@Configuration
+@EnableConfigurationProperties(PagingProperties.class)
+public class PagingConfig {
+
+    @Bean
+    public PageCountCache pageCountCache(PagingProperties properties) {
+        return new PageCountCache(properties.getCountCacheTtl(), properties.getCountCacheSize());
+    }
+
+    @Bean
+    public ParallelPageExecutor parallelPageExecutor(PageCountCache pageCountCache, PagingProperties properties,
+                                                     JdbcAdmissionLimiter jdbcAdmissionLimiter) {
+        // count 쿼리는 대부분 커넥션을 기다리거나 DB 응답을 기다리므로 가상 스레드로 실행하고, 동시 실행 수만 제한한다.
+        SimpleAsyncTaskExecutor countExecutor = new SimpleAsyncTaskExecutor("page-count-");
+        countExecutor.setVirtualThreads(true);
+        countExecutor.setConcurrencyLimit(properties.getCountConcurrency());
+        return new ParallelPageExecutor(pageCountCache, countExecutor, properties.isParallelCount(), jdbcAdmissionLimiter);
+    }
+}
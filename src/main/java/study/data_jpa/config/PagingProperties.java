@@ -0,0 +1,19 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// application.yml 의 app.paging 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.paging")
+public class PagingProperties {
+
+    private boolean parallelCount = false; // true 면 count 쿼리를 다른 커넥션에서 content 쿼리와 동시에 실행한다.
+    private int countConcurrency = 4; // 동시에 실행할 수 있는 count 쿼리 수 (커넥션 풀보다 작게)
+    private Duration countCacheTtl = Duration.ofSeconds(5); // 0 이면 count 를 캐시하지 않는다.
+    private long countCacheSize = 10_000;
+}
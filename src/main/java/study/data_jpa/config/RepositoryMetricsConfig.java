@@ -0,0 +1,52 @@
+package study.data_jpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+import study.data_jpa.metrics.LoadCountingIntegrator;
+import study.data_jpa.metrics.RepositoryMetricsInterceptor;
+import study.data_jpa.metrics.StatementCountingSessionListener;
+
+// 리포지토리 메서드별 메트릭 설정
+// /actuator/metrics/repository.invocations?tag=repository:MemberRepository&tag=method:findByAge 처럼 조회한다.
+// app.repository-metrics.enabled=false 면 아무 빈도 등록하지 않으므로 리포지토리 호출 경로에 추가 비용이 없다.
+@Configuration
+@ConditionalOnProperty(prefix = "app.repository-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RepositoryMetricsProperties.class)
+public class RepositoryMetricsConfig {
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 선언하고, MeterRegistry 는 처음 기록할 때 가져온다.
+    @Bean
+    public static BeanPostProcessor repositoryMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                       ObjectProvider<RepositoryMetricsProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    int threshold = properties.getObject().getStatementWarnThreshold();
+                    SingletonSupplier<MeterRegistry> registry = SingletonSupplier.of(meterRegistry::getObject);
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(0, new RepositoryMetricsInterceptor(
+                                    registry, information.getRepositoryInterface().getSimpleName(), threshold))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer repositoryMetricsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, StatementCountingSessionListener.class.getName());
+            HibernateIntegrators.add(properties, new LoadCountingIntegrator());
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// application.yml 의 app.repository-metrics 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.repository-metrics")
+public class RepositoryMetricsProperties {
+
+    private boolean enabled = true; // false 면 인터셉터/Hibernate 리스너를 아예 등록하지 않는다.
+    private int statementWarnThreshold = 10; // 한 번 호출에 이보다 많은 SQL 이 나가면 경고 로그를 남긴다.
+}
@@ -0,0 +1,41 @@
+package study.data_jpa.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.data_jpa.repository.support.TeamMemberCountListener;
+
+// Team.memberCount 를 맞추는 Hibernate 이벤트 리스너 등록
+// SessionFactory 를 만들 때 Integrator 로 붙이므로 첫 세션부터 적용된다.
+// flush 리스너는 기본 리스너 뒤에 붙여서, Member insert/update/delete 가 모두 실행된 다음에 팀 인원 수를 더한다.
+@Configuration
+public class TeamMemberCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer teamMemberCountListenerCustomizer() {
+        TeamMemberCountListener listener = new TeamMemberCountListener();
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_INSERT, listener);
+                registry.appendListeners(EventType.POST_UPDATE, listener);
+                registry.appendListeners(EventType.POST_DELETE, listener);
+                registry.appendListeners(EventType.FLUSH, listener);
+                registry.appendListeners(EventType.AUTO_FLUSH, listener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> HibernateIntegrators.add(properties, integrator);
+    }
+}
@@ -0,0 +1,33 @@
+package study.data_jpa.config;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.data_jpa.controller.MemberSortPolicy;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.warmup.StartupWarmup;
+
+import javax.sql.DataSource;
+
+// ApplicationRunner 는 ApplicationReadyEvent 전에 실행되므로 readiness 가 ACCEPTING_TRAFFIC 이 되기 전에 워밍업이 끝난다.
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+@ConditionalOnProperty(prefix = "app.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupConfig {
+
+    @Bean
+    public StartupWarmup startupWarmup(DataSource dataSource, MemberRepository memberRepository,
+                                       TeamRepository teamRepository, MemberSortPolicy memberSortPolicy,
+                                       WarmupProperties properties) {
+        return new StartupWarmup(dataSource, memberRepository, teamRepository, memberSortPolicy,
+                properties.getIterations(), properties.getPageSize());
+    }
+
+    @Bean
+    public ApplicationRunner startupWarmupRunner(StartupWarmup startupWarmup) {
+        return args -> startupWarmup.run();
+    }
+}
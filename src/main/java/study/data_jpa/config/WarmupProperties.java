@@ -0,0 +1,16 @@
+package study.data_jpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// application.yml 의 app.warmup 설정
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+    private int iterations = 5; // 자주 쓰는 조회를 몇 번씩 미리 실행할지 (JIT 가 올라올 만큼)
+    private int pageSize = 20;
+}
@@ -1,32 +1,112 @@
 package study.data_jpa.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+import study.data_jpa.dto.MemberDashboardDto;
 import study.data_jpa.dto.MemberDto;
+import study.data_jpa.dto.MemberWindowDto;
 import study.data_jpa.entity.Member;
 import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.service.MemberDashboardService;
+import study.data_jpa.service.MemberExportService;
+import study.data_jpa.service.MemberPageService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberPageService memberPageService;
+    private final MemberDashboardService memberDashboardService;
+    private final JdbcAdmissionLimiter jdbcAdmissionLimiter;
+    private final MemberPageCache memberPageCache;
+    private final MemberSortPolicy memberSortPolicy;
 
     // /members?page=0&size=3&sort=id,desc&sort=username,desc
 //    @GetMapping("/members")
 //    public Page<Member> list(Pageable pageable) {
 //        Page<Member> page = memberRepository.findAll(pageable);
 //        return page;
+//    }
+
+//    @GetMapping("/members")
+//    public Page<MemberDto> list(Pageable pageable) {
+//        // 엔티티를 조회한 뒤 MemberDto::new 로 변환하면 getTeam().getName() 에서 회원마다 팀 조회 쿼리가 나간다. (N+1)
+//        Page<Member> page = memberRepository.findAll(pageable);
+//        Page<MemberDto> pageDto = page.map(MemberDto::new);
+//        return pageDto;
+//    }
+
+//    @GetMapping("/members")
+//    public Page<MemberDto> list(Pageable pageable) {
+//        // DTO 로 바로 조회 - 페이지당 content 쿼리 1번 + count 쿼리 1번 (count 는 병렬 실행/캐시될 수 있다)
+//        return memberPageService.findMemberDto(pageable);
 //    }
 
     @GetMapping("/members")
-    public Page<MemberDto> list(Pageable pageable) {
-        // return memberRepository.findAll(pageable).map(MemberDto::new);
-        Page<Member> page = memberRepository.findAll(pageable);
-        Page<MemberDto> pageDto = page.map(MemberDto::new);
-        return pageDto;
+    public ResponseEntity<byte[]> list(Pageable request) {
+        // sort/size 는 MemberSortPolicy 로 인덱스를 타는 정렬(+ id)과 최대 크기 안으로 바꾼 뒤 쓴다.
+        // 같은 정렬로 풀리는 요청(?sort=username 과 ?sort=username&sort=id)은 캐시 키도 같아진다.
+        Pageable pageable = memberSortPolicy.apply(request);
+        // 같은 페이지 요청이면 데이터가 바뀌기 전까지 만들어 둔 JSON 을 그대로 내려준다. (MemberPageCache)
+        // ETag 를 붙여 두면 If-None-Match 가 같은 요청에는 스프링 MVC 가 본문 없이 304 를 돌려준다.
+        // no-cache - 클라이언트/프록시가 저장은 하되 매번 ETag 로 다시 확인하게 한다.
+        MemberPageCache.CachedPage page = memberPageCache.get(pageable, () -> memberPageService.findMemberDto(pageable));
+        return ResponseEntity.ok()
+                .eTag(page.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(page.body());
+    }
+
+    // /members/dashboard?teamId=1&age=20
+    // CompletableFuture 를 돌려주면 요청 스레드는 바로 반납되고, 두 조회가 끝나면 응답을 쓴다.
+    @GetMapping("/members/dashboard")
+    public CompletableFuture<MemberDashboardDto> dashboard(@RequestParam Long teamId, @RequestParam int age) {
+        return memberDashboardService.dashboard(teamId, age);
+    }
+
+    // /members/scroll?size=20 -> 응답의 next 값을 /members/scroll?size=20&cursor={next} 로 넘겨 다음 페이지를 조회한다.
+    // offset 을 쓰지 않으므로 몇 번째 페이지든 조회 비용이 같다.
+    @GetMapping("/members/scroll")
+    public MemberWindowDto scroll(@RequestParam(required = false) String cursor,
+                                  @RequestParam(defaultValue = "20") int size) {
+        Limit limit = Limit.of(Math.min(Math.max(size, 1), MAX_SCROLL_SIZE));
+        Window<Member> window = memberRepository.findAllByOrderByIdAsc(MemberCursor.decode(cursor), limit);
+
+        List<MemberDto> content = window.map(MemberDto::new).getContent();
+        String next = window.hasNext() ? MemberCursor.encode(window.positionAt(window.size() - 1)) : null;
+        return new MemberWindowDto(content, window.hasNext(), next);
+    }
+
+    // 전체 회원을 NDJSON 으로 내려받는다.
+    // 응답 본문은 요청 스레드가 아닌 별도 스레드에서 쓰여지므로, 트랜잭션은 MemberExportService 가 직접 열고
+    // JdbcAdmissionFilter 가 잡아둔 허가도 이미 반납된 뒤라 그 스레드에서 다시 받는다.
+    @GetMapping(value = "/members/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            try (JdbcAdmissionLimiter.Permit permit = jdbcAdmissionLimiter.acquire()) {
+                memberExportService.exportNdjson(out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 }
@@ -0,0 +1,38 @@
+package study.data_jpa.controller;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+// 키셋 페이징 커서 <-> ScrollPosition 변환
+// 클라이언트에는 마지막으로 읽은 id 를 base64url 로 감싼 불투명한 문자열만 노출한다.
+final class MemberCursor {
+
+    private static final String KEY = "id";
+
+    private MemberCursor() {
+    }
+
+    static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset(); // 첫 페이지
+        }
+        try {
+            String lastId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return ScrollPosition.forward(Map.of(KEY, Long.parseLong(lastId)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor", e);
+        }
+    }
+
+    static String encode(ScrollPosition position) {
+        Object lastId = ((KeysetScrollPosition) position).getKeys().get(KEY);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,74 @@
+package study.data_jpa.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.DigestUtils;
+import study.data_jpa.repository.support.DataVersion;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+// GET /members 응답(JSON) 캐시 - 같은 page/size/sort 요청이면 조회와 직렬화 없이 만들어 둔 바이트를 그대로 내려준다.
+// 엔트리에는 만들 때의 DataVersion 을 같이 저장하고, 그 사이에 Member/Team 쓰기가 커밋됐으면 다시 만든다.
+// ETag 는 응답 본문의 해시라서 다시 만들어도 내용이 같으면 그대로이고, 클라이언트는 If-None-Match 로 304 를 받는다.
+// 메모리는 응답 크기의 합(maximumWeight)으로 제한하고, 넘으면 Caffeine 이 자주/최근에 안 쓰인 페이지부터 내보낸다.
+public class MemberPageCache {
+
+    private static final int ENTRY_OVERHEAD = 128; // 키, ETag 문자열, 캐시 노드의 대략적인 크기(byte)
+
+    private final Cache<Object, CachedPage> cache;
+    private final DataVersion dataVersion;
+    private final ObjectMapper objectMapper;
+
+    public MemberPageCache(boolean enabled, long maximumWeight, DataVersion dataVersion, ObjectMapper objectMapper) {
+        this.cache = enabled ? Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Object key, CachedPage page) -> ENTRY_OVERHEAD + page.body().length)
+                .recordStats()
+                .build() : null;
+        this.dataVersion = dataVersion;
+        this.objectMapper = objectMapper;
+    }
+
+    public CachedPage get(Pageable pageable, Supplier<?> loader) {
+        // 조회하기 전에 버전을 읽는다. 조회 중에 쓰기가 커밋되면 이 엔트리는 이미 지난 버전이라 다시 쓰이지 않는다.
+        long version = dataVersion.current();
+        Object key = key(pageable);
+        if (cache != null) {
+            CachedPage cached = cache.getIfPresent(key);
+            if (cached != null && cached.version() == version) {
+                return cached;
+            }
+        }
+        CachedPage page = render(version, loader.get());
+        if (cache != null) {
+            cache.put(key, page);
+        }
+        return page;
+    }
+
+    public Cache<Object, CachedPage> getNativeCache() {
+        return cache;
+    }
+
+    // ?page=0&size=20 과 ?size=20 처럼 같은 Pageable 로 풀리는 요청은 같은 키가 된다.
+    static Object key(Pageable pageable) {
+        return List.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+    }
+
+    private CachedPage render(long version, Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            return new CachedPage(version, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record CachedPage(long version, String etag, byte[] body) {
+    }
+}
@@ -0,0 +1,69 @@
+package study.data_jpa.controller;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GET /members 의 sort/size 파라미터를 인덱스를 탈 수 있는 정렬로 바꾼다.
+// - 허용한 정렬 키만 받고, 키마다 인덱스 컬럼 순서 그대로 풀어서 정렬한다. (username -> username, age / age -> age, username)
+// - 마지막에 id 를 붙여 값이 같은 행의 순서를 고정한다. 그래야 페이지를 넘길 때 행이 빠지거나 두 번 나오지 않는다.
+// - 정렬 키는 하나만 받는다. 두 번째 키나 team.name 처럼 조인을 타는 정렬은 인덱스로 정렬할 수 없어 매번 전체를 읽고 정렬하게 된다.
+// 허용하지 않은 정렬은 400 으로 거절하거나(reject-disallowed: true), 빼고 id 순으로 돌려준다.
+public class MemberSortPolicy {
+
+    private static final String TIEBREAKER = "id";
+
+    private final Map<String, List<String>> allowed;
+    private final int maxPageSize;
+    private final boolean rejectDisallowed;
+
+    public MemberSortPolicy(Map<String, List<String>> allowed, int maxPageSize, boolean rejectDisallowed) {
+        this.allowed = new LinkedHashMap<>(allowed);
+        this.maxPageSize = maxPageSize;
+        this.rejectDisallowed = rejectDisallowed;
+    }
+
+    public Pageable apply(Pageable pageable) {
+        int size = Math.min(pageable.getPageSize(), maxPageSize);
+        return PageRequest.of(pageable.getPageNumber(), size, translate(pageable.getSort()));
+    }
+
+    Sort translate(Sort sort) {
+        List<Sort.Order> requested = sort.toList();
+        Sort.Order first = requested.isEmpty() ? null : requested.get(0);
+        List<String> columns = first == null ? null : allowed.get(first.getProperty());
+
+        if (first != null && (columns == null || !onlyTiebreakerAfter(requested, first.getDirection()))) {
+            if (rejectDisallowed) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sort not allowed: " + sort);
+            }
+            first = null;
+            columns = null;
+        }
+
+        // 인덱스를 거꾸로 읽을 수 있도록 모든 컬럼을 첫 정렬 키와 같은 방향으로 맞춘다.
+        Sort.Direction direction = first == null ? Sort.Direction.ASC : first.getDirection();
+        List<String> properties = new ArrayList<>(columns == null ? List.of() : columns);
+        if (!properties.contains(TIEBREAKER)) {
+            properties.add(TIEBREAKER);
+        }
+        return Sort.by(direction, properties.toArray(String[]::new));
+    }
+
+    // sort=username,desc&sort=id,desc 처럼 뒤에 같은 방향의 id 만 붙은 요청은 그대로 받아준다.
+    private static boolean onlyTiebreakerAfter(List<Sort.Order> requested, Sort.Direction direction) {
+        for (Sort.Order order : requested.subList(1, requested.size())) {
+            if (!order.getProperty().equals(TIEBREAKER) || order.getDirection() != direction) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
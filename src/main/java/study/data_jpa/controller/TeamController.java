@@ -0,0 +1,31 @@
+package study.data_jpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.data_jpa.dto.TeamRosterDto;
+import study.data_jpa.service.TeamRosterService;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_MEMBERS_PER_TEAM = 100;
+
+    private final TeamRosterService teamRosterService;
+
+    // /teams?page=0&size=20&membersPerTeam=10
+    // 팀은 id 순으로 페이징하고, 팀마다 회원을 id 순으로 membersPerTeam 명까지 붙여서 내려준다. (전체 인원은 memberCount)
+    @GetMapping("/teams")
+    public Page<TeamRosterDto> list(@RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    @RequestParam(defaultValue = "10") int membersPerTeam) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by("id"));
+        return teamRosterService.findRosters(pageable, Math.min(Math.max(membersPerTeam, 0), MAX_MEMBERS_PER_TEAM));
+    }
+}
@@ -0,0 +1,5 @@
+package study.data_jpa.dto;
+
+// MemberIngestService 로 넘기는 회원 가입 요청 - teamId 가 null 이면 팀 없이 저장한다.
+public record MemberCreateCommand(String username, int age, Long teamId) {
+}
@@ -0,0 +1,22 @@
+package study.data_jpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// 팀 정보 + 같은 나이 회원 목록 - 서로 관계없는 두 조회를 한 응답으로 묶는다.
+@Getter
+public class MemberDashboardDto {
+
+    private final Long teamId;
+    private final String teamName;
+    private final long teamMemberCount;
+    private final List<MemberDto> membersOfAge;
+
+    public MemberDashboardDto(Long teamId, String teamName, long teamMemberCount, List<MemberDto> membersOfAge) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.teamMemberCount = teamMemberCount;
+        this.membersOfAge = membersOfAge;
+    }
+}
@@ -23,6 +23,6 @@ public class MemberDto {
     public MemberDto(Member member) {
         this.id = member.getId();
         this.username = member.getUsername();
-        this.teamName = member.getTeam().getName();
+        this.teamName = member.getTeam() != null ? member.getTeam().getName() : null; // 팀이 없는 회원도 있다.
     }
 }
@@ -0,0 +1,6 @@
+package study.data_jpa.dto;
+
+// 목록 조회용 projection
+// 엔티티가 아니므로 영속성 컨텍스트에 올라가지 않고, 스냅샷/변경 감지 비용도 없다.
+public record MemberSummary(Long id, String username, String teamName) {
+}
@@ -0,0 +1,20 @@
+package study.data_jpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// 키셋 페이징 응답 - 전체 개수(totalElements) 없이 다음 페이지를 조회할 커서만 내려준다.
+@Getter
+public class MemberWindowDto {
+
+    private final List<MemberDto> content;
+    private final boolean hasNext;
+    private final String next; // 다음 요청의 cursor 파라미터로 그대로 넘기면 된다. 마지막 페이지면 null
+
+    public MemberWindowDto(List<MemberDto> content, boolean hasNext, String next) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.next = next;
+    }
+}
@@ -0,0 +1,7 @@
+package study.data_jpa.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// TeamRepository.findRosterMembers 결과 - teamId 는 팀별로 묶는 데만 쓰고 응답에는 내보내지 않는다.
+public record RosterMember(@JsonIgnore Long teamId, Long id, String username) {
+}
@@ -0,0 +1,8 @@
+package study.data_jpa.dto;
+
+import java.util.List;
+
+// GET /teams 응답 - 팀과 그 팀의 회원 일부(id 순으로 앞에서부터 membersPerTeam 명)
+// memberCount 는 전체 인원 수이므로 members 보다 크면 잘린 것이다.
+public record TeamRosterDto(Long id, String name, long memberCount, List<RosterMember> members) {
+}
@@ -2,20 +2,51 @@ package study.data_jpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.data_jpa.repository.support.DataVersionListener;
+import study.data_jpa.repository.support.MemberLookupCacheListener;
 
 @Entity
+// username 으로 찾는 조회(+ age 조건)는 (username, age), age 로 찾고 username 으로 정렬하는 페이징은 (age, username) 인덱스를 탄다.
+// 끝에 member_id 까지 넣어 두면 /members?sort=username|age (MemberSortPolicy 가 id 를 붙인다) 도 정렬 없이 인덱스 순서대로 읽는다.
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age, member_id"),
+        @Index(name = "idx_member_age_username", columnList = "age, username, member_id")
+})
+// MemberJpaRepository / MemberRepositoryImpl 에서 쓰는 JPQL - 기동할 때 미리 파싱/검증하므로 잘못된 쿼리는 기동 실패로 바로 드러난다.
+// 이름이 MemberRepository 의 쿼리 메서드 이름(Member.<메서드명>)과 겹치면 스프링 데이터가 그 메서드에 가져다 쓰므로 겹치지 않게 짓는다.
+@NamedQuery(name = "Member.findAllMembers", query = "select m from Member m")
+@NamedQuery(name = "Member.countMembers", query = "select count(m) from Member m")
+@NamedQuery(name = "Member.findPageByAge", query = "select m from Member m where m.age = :age order by m.username desc")
+@NamedQuery(name = "Member.totalCountByAge", query = "select count(m) from Member m where m.age = :age")
+@NamedQuery(name = "Member.findAllByUsernames", query = "select m from Member m where m.username in :names")
+@NamedQuery(name = "Member.bulkIncrementAge", query = "update versioned Member m set m.age = m.age + 1 where m.age >= :age")
+@NamedQuery(name = "Member.bulkMoveTeam", query = "update versioned Member m set m.team = :to where m.team = :from")
+@NamedQuery(name = "Member.bulkDeleteByTeam", query = "delete from Member m where m.team = :team")
+@EntityListeners({MemberLookupCacheListener.class, DataVersionListener.class}) // 저장/삭제되면 username 조회 캐시를 비우고 데이터 버전을 올린다.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member") // 쿼리 캐시는 id 만 저장하므로 엔티티도 캐시에 있어야 한다.
 @Getter
 @NoArgsConstructor(access= AccessLevel.PROTECTED) // JPA쓸 때 기본 생성자가 필수인데, 이 기본 생성자를 private 으로 하면 안되고 protected 까지 열어둬야한다.
 @ToString(of={"id","username","age"}) // 여기에 team 은 안하는게 좋다. 무한루프 가능성이 있다. - 가급적 내부 필드만(연관관계 없는 필드만)
 public class Member {
 
     @Id
-    @GeneratedValue
+    // 시퀀스를 allocationSize 만큼 한 번에 받아와 메모리에서 나눠 쓴다. (pooled optimizer)
+    // insert 마다 시퀀스를 조회하지 않아야 JDBC batch 가 채워진다.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name="member_id")
     private Long id;
     private String username;
     private int age;
 
+    // 낙관적 락 - 수정할 때 where version = ? 으로 확인하고 1 올린다. 그 사이 다른 트랜잭션이 먼저 바꿨으면 OptimisticLockException
+    // 벌크 update 는 update versioned 로 같이 올려서, 그 전에 읽어 둔 엔티티가 벌크 결과를 덮어쓰지 못하게 한다.
+    @Version
+    private long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="team_id") // team 테이블의 PK 참조하여 team_id 컬럼 생성
     private Team team;
@@ -32,13 +63,27 @@ public class Member {
     public Member(String username, int age, Team team) {
         this.username = username;
         this.age = age;
-        if (team != null) {
-            changeTeam(team);
-        }
+        changeTeam(team);
     }
 
     public void changeTeam(Team team) {
+        if (this.team == team) {
+            return;
+        }
+        if (this.team != null) {
+            this.team.removeMember(this); // 이전 팀의 인원 수를 줄이고 members 리스트에서 뺀다.
+        }
         this.team = team; // member 의 team 필드에 새로운 team 을 설정한다.
-        team.getMembers().add(this); // 해당 팀의 members 리스트에 현재 member 를 추가한다.
+        if (team != null) {
+            team.addMember(this); // 해당 팀의 인원 수를 늘리고 members 리스트에 현재 member 를 추가한다.
+        }
+    }
+
+    // em.remove 로 삭제할 때 팀 인원 수를 줄인다. (DB 는 TeamMemberCountListener, 벌크 삭제는 MemberRepository.deleteByTeam 이 맞춰준다)
+    @PreRemove
+    private void preRemove() {
+        if (team != null) {
+            team.removeMember(this);
+        }
     }
 }
@@ -5,25 +5,77 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import study.data_jpa.repository.support.DataVersionListener;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedQuery(name = "Team.findAllTeams", query = "select t from Team t")
+@NamedQuery(name = "Team.countTeams", query = "select count(t) from Team t")
+// 2차 캐시 region 을 통째로 비우지 않도록 네이티브로 실행한다. (TeamMemberCounts)
+@NamedNativeQuery(name = "Team.addMemberCountById", query = "update team set member_count = member_count + :delta where team_id = :teamId")
+@NamedQuery(name = "Team.preloadByIds", query = "select t from Team t where t.id in :ids")
+@EntityListeners(DataVersionListener.class) // 저장/수정/삭제되면 데이터 버전을 올린다. (GET /members 응답 캐시 무효화)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team") // 쓰기보다 읽기가 훨씬 많으므로 2차 캐시에 둔다.
+// 회원 목록에서 member.getTeam() 프록시를 처음 초기화할 때, 영속성 컨텍스트에 있는 다른 Team 프록시도 100개까지 in 절로 같이 읽는다.
+@BatchSize(size = 100)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@ToString(of={"id","name"})
+@ToString(of={"id","name","memberCount"})
 public class Team {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 100)
     @Column(name="team_id")
     private Long id;
     private String name;
 
+    // 읽어 둔 지난 Team 을 merge 해서 name 등을 덮어쓰지 못하게 한다.
+    // memberCount 를 더할 때는 올리지 않는다. (memberCount 는 updatable = false 라 merge 로 덮어쓸 수 없고,
+    // 올리면 회원 가입/이동이 있을 때마다 그 전에 읽어 둔 Team 의 저장/삭제가 충돌한다)
+    @Version
+    private long version;
+
+    // 팀 인원 수 - members 컬렉션을 초기화하거나 count 쿼리를 날리지 않고 바로 읽는다.
+    // 엔티티 값으로는 insert/update 하지 않고 DB 에서 memberCount + delta 로만 바꾼다.
+    // (회원 저장/팀 이동/삭제는 TeamMemberCountListener 가 flush 할 때, 벌크 이동·삭제는 MemberRepositoryImpl 이 더한다)
+    // 그래서 준영속 Team 으로 회원을 저장해도 빠지지 않고, 같은 팀에 동시에 가입해도 Team 의 @Version 이 충돌하지 않는다.
+    @ColumnDefault("0")
+    @Column(name = "member_count", nullable = false, insertable = false, updatable = false)
+    private long memberCount;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team.members")
+    @BatchSize(size = 100) // 팀 목록에서 members 를 처음 읽을 때 다른 팀들의 members 도 한 번에 읽는다.
     @OneToMany(mappedBy="team")
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
     }
+
+    // 연관관계 편의 메서드는 Member.changeTeam 에서만 호출한다.
+    // memberCount 는 이 객체에서 바로 보이도록 메모리에서만 바꾼다. (DB 에는 TeamMemberCountListener 가 반영한다)
+    // members 가 아직 로딩되지 않았으면 건드리지 않는다. (회원이 10만 명인 팀이면 10만 건을 읽게 된다)
+    // 로딩되지 않은 컬렉션은 다음에 조회할 때 DB 에서 변경된 내용을 읽어온다.
+    void addMember(Member member) {
+        memberCount++;
+        if (Hibernate.isInitialized(members)) {
+            members.add(member);
+        }
+    }
+
+    void removeMember(Member member) {
+        memberCount--;
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package study.data_jpa.metrics;
+
+// 리포지토리 메서드 한 번 호출 동안 발생한 SQL 실행/엔티티 로딩/컬렉션 초기화 횟수
+// 현재 스레드에서 진행 중인 호출에만 누적되며, 호출 밖에서 일어난 일은 세지 않는다.
+public final class RepositoryCallStatistics {
+
+    private static final ThreadLocal<RepositoryCallStatistics> CURRENT = new ThreadLocal<>();
+
+    private final RepositoryCallStatistics outer; // 리포지토리 안에서 다른 리포지토리를 부르는 경우
+    private int statements;
+    private int entitiesLoaded;
+    private int collectionsFetched;
+
+    private RepositoryCallStatistics(RepositoryCallStatistics outer) {
+        this.outer = outer;
+    }
+
+    static RepositoryCallStatistics begin() {
+        RepositoryCallStatistics statistics = new RepositoryCallStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    // 바깥 호출에도 안쪽 호출에서 발생한 횟수를 더해준다.
+    void end() {
+        if (outer == null) {
+            CURRENT.remove();
+            return;
+        }
+        outer.statements += statements;
+        outer.entitiesLoaded += entitiesLoaded;
+        outer.collectionsFetched += collectionsFetched;
+        CURRENT.set(outer);
+    }
+
+    static void statementExecuted() {
+        RepositoryCallStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RepositoryCallStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entitiesLoaded++;
+        }
+    }
+
+    static void collectionFetched() {
+        RepositoryCallStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionsFetched++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public int getCollectionsFetched() {
+        return collectionsFetched;
+    }
+}
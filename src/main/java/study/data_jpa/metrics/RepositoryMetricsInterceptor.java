@@ -0,0 +1,86 @@
+package study.data_jpa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// 리포지토리 메서드별 응답 시간과 SQL 실행/엔티티 로딩/컬렉션 초기화 횟수를 Micrometer 에 기록한다.
+// 트랜잭션 인터셉터보다 바깥에 걸리므로 커밋 시점의 flush 로 나가는 SQL 도 해당 메서드에 포함된다.
+@Slf4j
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final Supplier<MeterRegistry> registry;
+    private final String repository;
+    private final int statementWarnThreshold;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(Supplier<MeterRegistry> registry, String repository, int statementWarnThreshold) {
+        this.registry = registry;
+        this.repository = repository;
+        this.statementWarnThreshold = statementWarnThreshold;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallStatistics statistics = RepositoryCallStatistics.begin();
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            statistics.end();
+            record(invocation.getMethod(), elapsed, statistics);
+        }
+    }
+
+    private void record(Method method, long elapsed, RepositoryCallStatistics statistics) {
+        Meters m = meters.computeIfAbsent(method, this::createMeters);
+        m.invocations.record(elapsed, TimeUnit.NANOSECONDS);
+        m.statements.record(statistics.getStatements());
+        m.entitiesLoaded.record(statistics.getEntitiesLoaded());
+        m.collectionsFetched.record(statistics.getCollectionsFetched());
+
+        if (statistics.getStatements() > statementWarnThreshold) {
+            log.warn("{}.{} executed {} SQL statements in one call (threshold {}), loaded {} entities and fetched {} collections - check for N+1",
+                    repository, method.getName(), statistics.getStatements(), statementWarnThreshold,
+                    statistics.getEntitiesLoaded(), statistics.getCollectionsFetched());
+        }
+    }
+
+    private Meters createMeters(Method method) {
+        MeterRegistry r = registry.get();
+        Tags tags = Tags.of("repository", repository, "method", method.getName());
+        return new Meters(
+                Timer.builder("repository.invocations")
+                        .description("Repository method latency")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(r),
+                summary("repository.sql.statements", "SQL statements executed per call", tags, r),
+                summary("repository.entities.loaded", "Entities loaded per call", tags, r),
+                summary("repository.collections.fetched", "Collections initialized per call", tags, r));
+    }
+
+    private static DistributionSummary summary(String name, String description, Tags tags, MeterRegistry registry) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private record Meters(Timer invocations,
+                          DistributionSummary statements,
+                          DistributionSummary entitiesLoaded,
+                          DistributionSummary collectionsFetched) {
+    }
+}
@@ -0,0 +1,18 @@
+package study.data_jpa.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+// hibernate.session.events.auto 로 등록되어 세션마다 하나씩 만들어진다.
+// StatementInspector 는 SQL 을 만들 때 불리므로(배치 insert 는 한 번만 불린다) 실제 JDBC 실행 시점에 센다.
+public class StatementCountingSessionListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RepositoryCallStatistics.statementExecuted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        RepositoryCallStatistics.statementExecuted();
+    }
+}
@@ -3,29 +3,58 @@ package study.data_jpa.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Member;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+// 조회는 읽기 전용 트랜잭션(FlushMode.MANUAL, 스냅샷 없음)으로 실행하고, 저장/삭제만 쓰기 트랜잭션을 연다.
 @Repository
+@Transactional(readOnly = true)
 public class MemberJpaRepository  {
 
     @PersistenceContext
     private EntityManager em;
 
+    @Transactional
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    // 대량 저장 - batchSize 건마다 flush/clear 해서 영속성 컨텍스트가 계속 커지지 않게 한다.
+    // insert 는 hibernate.jdbc.batch_size 단위로 묶여서 나가고, id 는 시퀀스에서 allocationSize 만큼 미리 받아온다.
+    // clear 를 하므로 같은 트랜잭션에서 이미 조회해 둔 엔티티도 준영속 상태가 된다는 점에 주의.
+    @Transactional
+    public long saveAllBatched(Stream<Member> members, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        long count = 0;
+        Iterator<Member> iterator = members.iterator();
+        while (iterator.hasNext()) {
+            em.persist(iterator.next());
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    @Transactional
     public void delete(Member member) {
         em.remove(member);
     }
 
     public List<Member> findAll() {
-        // JPQL 사용 - 객체를 대상으로 하는 쿼리
-        return em.createQuery("select m from Member m", Member.class).getResultList();
+        // JPQL 사용 - 객체를 대상으로 하는 쿼리 (Member 엔티티의 @NamedQuery)
+        return em.createNamedQuery("Member.findAllMembers", Member.class).getResultList();
     }
 
     // Member 가 널일 수도 , 아닐 수도 있다. -> Optional
@@ -35,7 +64,7 @@ public class MemberJpaRepository  {
     }
 
     public long count() {
-        return em.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+        return em.createNamedQuery("Member.countMembers", Long.class).getSingleResult();
     }
 
     public Member find(Long id) {
@@ -44,16 +73,17 @@ public class MemberJpaRepository  {
 
     // 페이징 및 정렬
     // 나이가 10살이면서 이름 내림차순
-    public List findByPage(int age, int offset, int limit) {
-        return em.createQuery("select m from Member m where m.age = :age order by m.username desc")
+    public List<Member> findByPage(int age, int offset, int limit) {
+        return em.createNamedQuery("Member.findPageByAge", Member.class)
                 .setParameter("age",age)
                 .setFirstResult(offset)
                 .setMaxResults(limit)
                 .getResultList();
     }
 
+    // 캐시하지 않는다. count 캐시는 Page 를 만드는 MemberPageService 쪽에만 있다.
     public long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+        return em.createNamedQuery("Member.totalCountByAge", Long.class)
                 .setParameter("age",age)
                 .getSingleResult();
     }
@@ -1,19 +1,40 @@
 package study.data_jpa.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.dto.MemberDto;
+import study.data_jpa.dto.MemberSummary;
 import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
 import study.data_jpa.repository.custom.MemberRepositoryCustom;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// 조회 메서드는 기본으로 읽기 전용 트랜잭션에서 실행한다.
+// 읽기 전용이면 Hibernate 세션이 FlushMode.MANUAL + defaultReadOnly 로 바뀌어, 조회한 엔티티의 스냅샷을 만들지 않고 flush 시 변경 감지도 하지 않는다.
+// 데이터를 바꾸는 메서드는 @Transactional 을 따로 붙인다.
+@Transactional(readOnly = true)
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findByUsernameAndAge(@Param("username") String username, @Param("age") int age);
@@ -26,6 +47,26 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) " + "from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    // record projection - 엔티티 대신 필요한 컬럼만 읽는다.
+    @Query("select new study.data_jpa.dto.MemberSummary(m.id, m.username, t.name) from Member m left join m.team t")
+    List<MemberSummary> findMemberSummaries();
+
+    // 페이징 + DTO 직접 조회
+    // 팀이 없는 회원도 나오도록 left join 으로 한 번에 가져오고, count 쿼리는 join 없이 member 만 센다.
+    @Query(value = "select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDto(Pageable pageable);
+
+    // MemberPageService 가 count 를 따로(병렬로/캐시해서) 구하도록 content 만 조회하는 메서드
+    @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    List<MemberDto> findMemberDtoContent(Pageable pageable);
+
+    // 전체 회원을 스트림으로 조회 - getResultList() 처럼 한 번에 힙에 올리지 않고, 커서로 fetch size 만큼씩 읽어온다.
+    // DTO 로 조회하므로 영속성 컨텍스트에 엔티티가 쌓이지 않는다. 트랜잭션 안에서 사용하고, 다 쓰면 반드시 close 해야 한다.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t order by m.id")
+    Stream<MemberDto> streamMemberDto();
+
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
@@ -33,16 +74,38 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select m from Member m where m.username = :name")
     Member findMembers(@Param("name") String username);
 
-    // 컬렉션 파라미터 바인딩 - 컬렉션 타입으로 in 절 지원
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    // 컬렉션 파라미터 바인딩(findByNames)은 MemberRepositoryImpl 에서 in 절을 나눠서 실행한다.
 
     List<Member> findListByUsername(String username);
+
+    // 자주 조회되는 단건 조회는 쿼리 캐시를 사용한다. member 테이블이 바뀌면 자동으로 무효화된다.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Member findMemberByUsername(String username);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Member> findOptionalByUsername(String username);
 
     Page<Member> findByAge(int age, Pageable pageable);
 
+    // findByAge 의 content 쿼리와 count 쿼리를 따로 실행할 때 쓴다. (MemberPageService)
+    List<Member> findContentByAge(int age, Pageable pageable);
+
+    long countByAge(int age);
+
+    // 비동기 조회 - repositoryExecutor 스레드에서 자기 트랜잭션으로 실행하고 CompletableFuture 로 결과를 돌려준다.
+    // 트랜잭션이 끝난 뒤 다른 스레드에서 쓰므로 team 까지 fetch join 으로 읽어 둔다. (준영속 상태라 지연 로딩이 안 된다)
+    @Async("repositoryExecutor")
+    @Query("select m from Member m left join fetch m.team where m.age = :age")
+    CompletableFuture<List<Member>> findByAgeAsync(@Param("age") int age);
+
+    @Async("repositoryExecutor")
+    @Query("select m from Member m left join fetch m.team where m.username = :username")
+    CompletableFuture<List<Member>> findByUsernameAsync(@Param("username") String username);
+
+    // 키셋(seek) 페이징 - offset 대신 마지막으로 읽은 id 이후부터 조회한다.
+    // where m.id > :id order by m.id limit :limit+1 로 실행되므로 깊은 페이지도 첫 페이지와 비용이 같고, count 쿼리도 없다.
+    @EntityGraph(attributePaths = {"team"})
+    Window<Member> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
+
     // fetch join
     @Query("select m from Member m left join fetch m.team")
     List<Member> findMemberFetchJoin();
@@ -56,5 +119,11 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @EntityGraph(attributePaths = {"team"})
     List<Member> findByUsername(@Param("username") String username);
 
+    // 비관적 락 - select ... for update 로 읽어서 트랜잭션이 끝날 때까지 다른 트랜잭션의 수정/잠금을 기다리게 한다.
+    // MemberTeamService.changeTeamPessimistic 에서 낙관적 락 + 재시도와 비교하려고 둔다. (쓰기 트랜잭션 안에서 호출)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Member m where m.id = :id")
+    Optional<Member> findByIdForUpdate(@Param("id") Long id);
 
+    // 벌크 연산(bulkAgePlus, moveMembers, deleteByTeam)은 Team.memberCount / DataVersion / 조회 캐시도 함께 맞춰야 하므로 MemberRepositoryImpl 에 있다.
 }
@@ -0,0 +1,51 @@
+package study.data_jpa.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// 대량 조회(리포트/내보내기)용 JDBC 조회 - 엔티티도 DTO 도 만들지 않고 ResultSet 의 컬럼 값을 그대로 넘긴다.
+// JPQL 생성자 표현식(streamMemberDto)은 행마다 Object[]/MemberDto 와 박싱된 Long 을 만들고 Hibernate 의 결과 처리를 거친다.
+// 여기서는 id 를 long 그대로 넘기므로 행마다 새로 생기는 객체는 드라이버가 만드는 username/teamName 문자열뿐이다.
+// JPA 와 같은 트랜잭션(커넥션)에서 실행되므로, 같은 트랜잭션에서 저장한 엔티티를 보려면 먼저 flush 해야 한다.
+@Repository
+@Transactional(readOnly = true)
+public class MemberRowRepository {
+
+    private static final String MEMBER_ROWS_SQL =
+            "select m.member_id, m.username, t.name from member m left join team t on t.team_id = m.team_id order by m.member_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MemberRowRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(500); // streamMemberDto 와 같은 크기로 나눠서 읽는다.
+    }
+
+    // 전체 회원을 id 순으로 한 행씩 handler 에 넘기고, 넘긴 행 수를 돌려준다.
+    public long forEachMemberRow(MemberRowHandler handler) throws IOException {
+        long[] count = {0};
+        try {
+            jdbcTemplate.query(MEMBER_ROWS_SQL, rs -> {
+                try {
+                    handler.row(rs.getLong(1), rs.getString(2), rs.getString(3));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // RowCallbackHandler 는 SQLException 만 던질 수 있다.
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    @FunctionalInterface
+    public interface MemberRowHandler {
+        void row(long id, String username, String teamName) throws IOException; // 팀이 없는 회원은 teamName 이 null
+    }
+}
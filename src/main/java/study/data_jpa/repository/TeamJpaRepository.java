@@ -3,27 +3,54 @@ package study.data_jpa.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Team;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+// MemberJpaRepository 와 마찬가지로 조회는 읽기 전용 트랜잭션, 저장/삭제는 쓰기 트랜잭션
 @Repository
+@Transactional(readOnly = true)
 public class TeamJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Transactional
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    // 대량 저장 - MemberJpaRepository.saveAllBatched 와 동일하게 batchSize 건마다 flush/clear 한다.
+    @Transactional
+    public long saveAllBatched(Stream<Team> teams, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        long count = 0;
+        Iterator<Team> iterator = teams.iterator();
+        while (iterator.hasNext()) {
+            em.persist(iterator.next());
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    @Transactional
     public void delete(Team team) {
         em.remove(team);
     }
 
     public List<Team> findAll() {
-        return em.createQuery("select t from Team t", Team.class).getResultList();
+        return em.createNamedQuery("Team.findAllTeams", Team.class).getResultList();
     }
 
     public Optional<Team> findById(Long id) {
@@ -32,7 +59,7 @@ public class TeamJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(t) from Team t", Long.class).getSingleResult();
+        return em.createNamedQuery("Team.countTeams", Long.class).getSingleResult();
     }
 
 }
@@ -1,7 +1,40 @@
 package study.data_jpa.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.dto.RosterMember;
 import study.data_jpa.entity.Team;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@Transactional(readOnly = true)
 public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    // 비동기 조회 - MemberRepository.findByAgeAsync 와 같이 repositoryExecutor 에서 실행한다.
+    @Async("repositoryExecutor")
+    @Query("select t from Team t where t.id = :id")
+    CompletableFuture<Optional<Team>> findByIdAsync(@Param("id") Long id);
+
+    // 팀별로 id 순 앞에서부터 limit 명씩 - 팀 페이지를 먼저 조회한 뒤 그 팀들의 회원을 in 절 한 번으로 읽는다. (TeamRosterService)
+    // 페이징 쿼리에서 members 를 fetch join 하면 Hibernate 가 전체를 읽어 메모리에서 페이징하고(HHH90003004),
+    // 컬렉션을 지연 로딩하면 팀마다 전체 회원을 읽는다. 여기서는 row_number() 로 팀마다 limit 명까지만 DB 에서 잘라 온다.
+    @Query("select new study.data_jpa.dto.RosterMember(r.teamId, r.id, r.username) from (" +
+            "select m.team.id as teamId, m.id as id, m.username as username, " +
+            "row_number() over (partition by m.team.id order by m.id) as rn " +
+            "from Member m where m.team.id in :teamIds) r " +
+            "where r.rn <= :limit order by r.teamId, r.id")
+    List<RosterMember> findRosterMembers(@Param("teamIds") Collection<Long> teamIds, @Param("limit") int limit);
+
+    // 비관적 락 - MemberRepository.findByIdForUpdate 참고
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Team t where t.id = :id")
+    Optional<Team> findByIdForUpdate(@Param("id") Long id);
 }
@@ -1,9 +1,24 @@
 package study.data_jpa.repository.custom;
 
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
 
 import java.util.List;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    List<Member> findByNames(List<String> names);
+
+    List<Member> preloadTeams(List<Member> members);
+
+    @Transactional
+    int bulkAgePlus(int age);
+
+    @Transactional
+    int moveMembers(Team from, Team to);
+
+    @Transactional
+    int deleteByTeam(Team team);
 }
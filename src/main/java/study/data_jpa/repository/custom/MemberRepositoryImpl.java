@@ -3,18 +3,123 @@ package study.data_jpa.repository.custom;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.support.DataVersion;
+import study.data_jpa.repository.support.MemberLookupCache;
+import study.data_jpa.repository.support.TeamMemberCounts;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements  MemberRepositoryCustom{
 
+    // in 절 하나에 넣는 최대 파라미터 수
+    // 2의 거듭제곱이어야 hibernate.query.in_clause_parameter_padding 으로 패딩된 SQL 이 마지막 조각까지 재사용된다.
+    static final int IN_CLAUSE_CHUNK_SIZE = 512;
+
     private final EntityManager em;
+    private final MemberLookupCache memberLookupCache;
+    private final DataVersion dataVersion;
 
     @Override
     public List<Member> findMemberCustom() {
-        return em.createQuery("select m from Member m")
+        return em.createNamedQuery("Member.findAllMembers", Member.class)
                 .getResultList();
     }
+
+    // 컬렉션 파라미터 바인딩 - 컬렉션 타입으로 in 절 지원
+    // 이름이 아무리 많아도 IN_CLAUSE_CHUNK_SIZE 개씩 나눠서 조회한다. (드라이버 파라미터 수 제한, SQL/실행계획 캐시 폭증 방지)
+    // 조각들은 같은 영속성 컨텍스트에서 순서대로 실행한다.
+    @Override
+    public List<Member> findByNames(List<String> names) {
+        List<String> distinctNames = names.stream().distinct().toList();
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinctNames.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = distinctNames.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctNames.size()));
+            result.addAll(em.createNamedQuery("Member.findAllByUsernames", Member.class)
+                    .setParameter("names", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    // 이미 조회한 회원들의 팀을 in 절 한 번으로 미리 읽어온다. (IN_CLAUSE_CHUNK_SIZE 개씩)
+    // 읽어온 Team 이 영속성 컨텍스트에 올라가므로 이후 member.getTeam().getName() 은 쿼리를 날리지 않는다.
+    // fetch join 을 쓸 수 없는 쿼리(파생 쿼리, 페이징, 여러 조회 결과를 합친 목록)의 결과에 쓴다.
+    @Override
+    public List<Member> preloadTeams(List<Member> members) {
+        List<Long> teamIds = members.stream()
+                .map(Member::getTeam)
+                .filter(Objects::nonNull)
+                .filter(team -> !Hibernate.isInitialized(team))
+                .map(Team::getId) // 프록시의 id 는 초기화하지 않고 읽을 수 있다.
+                .distinct()
+                .toList();
+        for (int from = 0; from < teamIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            em.createNamedQuery("Team.preloadByIds", Team.class)
+                    .setParameter("ids", teamIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, teamIds.size())))
+                    .getResultList();
+        }
+        return members;
+    }
+
+    // 벌크 연산 - 회원을 하나씩 로딩하지 않고 update/delete 한 번으로 처리하고, 팀 인원 수도 처리한 수만큼 바꾼다.
+    // 영속성 컨텍스트를 거치지 않으므로 실행 전에 flush 하고 실행 후에 clear 해서
+    // 이미 조회해 둔 Member / Team(members, memberCount) 가 DB 와 달라지지 않게 한다.
+    // 엔티티 리스너도 거치지 않으므로 DataVersion 은 직접 올린다.
+    @Override
+    public int bulkAgePlus(int age) {
+        em.flush();
+        int updated = em.createNamedQuery("Member.bulkIncrementAge")
+                .setParameter("age", age)
+                .executeUpdate();
+        em.clear();
+        bumpIfChanged(updated);
+        return updated;
+    }
+
+    @Override
+    public int moveMembers(Team from, Team to) {
+        em.flush();
+        int moved = em.createNamedQuery("Member.bulkMoveTeam")
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .executeUpdate();
+        addMemberCount(from, -moved);
+        addMemberCount(to, moved);
+        em.clear();
+        bumpIfChanged(moved);
+        return moved;
+    }
+
+    @Override
+    public int deleteByTeam(Team team) {
+        em.flush();
+        int deleted = em.createNamedQuery("Member.bulkDeleteByTeam")
+                .setParameter("team", team)
+                .executeUpdate();
+        addMemberCount(team, -deleted);
+        em.clear();
+        // 엔티티 리스너를 거치지 않으므로 어떤 username 이 지워졌는지 모른다. (이동은 username -> id 가 그대로라 비우지 않는다)
+        if (deleted > 0) {
+            memberLookupCache.invalidateAllAfterCommit();
+        }
+        bumpIfChanged(deleted);
+        return deleted;
+    }
+
+    private void bumpIfChanged(int rows) {
+        if (rows > 0) {
+            dataVersion.bumpAfterCommit();
+        }
+    }
+
+    // memberCount = memberCount + delta 로 DB 에서 더하므로 동시에 다른 트랜잭션이 바꿔도 값을 덮어쓰지 않는다.
+    private void addMemberCount(Team team, int delta) {
+        TeamMemberCounts.add(em, team.getId(), delta);
+    }
 }
@@ -0,0 +1,36 @@
+package study.data_jpa.repository.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Member / Team 데이터의 버전 - 리포지토리를 통한 쓰기가 커밋될 때마다 1씩 올라간다.
+// 응답 캐시(MemberPageCache)는 만들 때의 버전을 같이 저장해 두고, 버전이 바뀌었으면 다시 만든다.
+// 엔티티 저장/수정/삭제는 DataVersionListener 가, 벌크 연산은 MemberRepositoryImpl 이 올린다.
+public class DataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    public long current() {
+        return version.get();
+    }
+
+    // 버전이 올라갈 때 같이 비워야 하는 캐시(PageCountCache 등)를 등록한다.
+    public void onChange(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    // 커밋한 뒤에 올린다. 커밋 전에 올리면 그 사이에 다른 요청이 커밋 전 데이터로 새 버전의 캐시를 만들 수 있다.
+    // 한 트랜잭션에서 여러 번 호출해도(엔티티마다 리스너가 부른다) 동기화는 한 번만 등록하고, 커밋할 때 한 번만 올린다.
+    public void bumpAfterCommit() {
+        if (TransactionScoped.get(this, () -> Boolean.TRUE, pending -> bump()) == null) {
+            bump();
+        }
+    }
+
+    private void bump() {
+        version.incrementAndGet();
+        listeners.forEach(Runnable::run);
+    }
+}
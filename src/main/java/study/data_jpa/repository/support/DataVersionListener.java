@@ -0,0 +1,20 @@
+package study.data_jpa.repository.support;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// Member / Team 엔티티 리스너 - 저장/수정/삭제되면 커밋 후에 DataVersion 을 올린다. (트랜잭션마다 한 번)
+@RequiredArgsConstructor
+public class DataVersionListener {
+
+    private final DataVersion dataVersion;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void changed(Object entity) {
+        dataVersion.bumpAfterCommit();
+    }
+}
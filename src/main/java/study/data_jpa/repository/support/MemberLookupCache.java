@@ -0,0 +1,144 @@
+package study.data_jpa.repository.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// username -> member id 캐시 (로그인 경로처럼 같은 username 을 반복해서 찾는 조회용)
+// 엔티티 대신 id 만 들고 있고, 엔티티는 호출한 쪽의 영속성 컨텍스트에서 id 로 다시 읽는다. (2차 캐시 member region 에서 나온다)
+// 없는 username 은 빈 Optional 로 저장해서(negative entry) 같은 이름을 계속 DB 에서 찾지 않게 하고, 더 짧게 유지한다.
+// 같은 키를 동시에 찾으면 Caffeine 이 로더를 한 번만 실행하고 나머지 스레드는 그 결과를 기다린다.
+// 쓰기 트랜잭션 안에서는 아직 커밋하지 않은 변경이 있을 수 있으므로 캐시를 읽지도 쓰지도 않는다. (PageCountCache 와 같다)
+public class MemberLookupCache {
+
+    // 엔트리 하나의 대략적인 메모리 크기(byte) - String(헤더 + UTF-16 char 배열) + Optional/Long + 캐시 노드
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int DEFAULT_INVALIDATE_ALL_THRESHOLD = 1000;
+
+    private final Cache<String, Optional<Long>> cache;
+    private final int invalidateAllThreshold;
+    private final LongAdder negativeHits = new LongAdder();
+
+    public MemberLookupCache(Duration ttl, Duration negativeTtl, long maximumWeight) {
+        this(ttl, negativeTtl, maximumWeight, DEFAULT_INVALIDATE_ALL_THRESHOLD);
+    }
+
+    // invalidateAllThreshold - 한 트랜잭션에서 이보다 많은 username 이 바뀌면 하나씩 지우지 않고 캐시를 통째로 비운다.
+    public MemberLookupCache(Duration ttl, Duration negativeTtl, long maximumWeight, int invalidateAllThreshold) {
+        this.invalidateAllThreshold = invalidateAllThreshold;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String username, Optional<Long> id) -> ENTRY_OVERHEAD + username.length() * 2)
+                .expireAfter(new Expiry<String, Optional<Long>>() {
+                    @Override
+                    public long expireAfterCreate(String username, Optional<Long> id, long currentTime) {
+                        return (id.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String username, Optional<Long> id, long currentTime, long currentDuration) {
+                        return expireAfterCreate(username, id, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String username, Optional<Long> id, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Long> get(String username, Function<String, Optional<Long>> loader) {
+        if (!usable()) {
+            return loader.apply(username);
+        }
+        boolean[] loaded = {false};
+        Optional<Long> id = cache.get(username, key -> {
+            loaded[0] = true;
+            return loader.apply(key);
+        });
+        if (!loaded[0] && id.isEmpty()) {
+            negativeHits.increment();
+        }
+        return id;
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    // 트랜잭션 안에서 바뀐 회원은 커밋한 뒤에 비운다.
+    // 커밋 전에 비우면 그 사이에 다른 트랜잭션이 커밋 전 상태(아직 없는 회원)를 다시 캐시에 올릴 수 있다.
+    // username 은 트랜잭션마다 하나의 Invalidation 에 모으고, 동기화도 한 번만 등록한다. (TransactionScoped)
+    // invalidateAllThreshold 를 넘으면 이름은 버리고 통째로 비우므로 10만 건 저장 트랜잭션도 들고 있는 것이 늘지 않는다.
+    public void invalidateAfterCommit(String username) {
+        Invalidation invalidation = pendingInvalidation();
+        if (invalidation == null) {
+            invalidate(username);
+        } else {
+            invalidation.add(username);
+        }
+    }
+
+    public void invalidateAllAfterCommit() {
+        Invalidation invalidation = pendingInvalidation();
+        if (invalidation == null) {
+            cache.invalidateAll();
+        } else {
+            invalidation.all();
+        }
+    }
+
+    public Cache<String, Optional<Long>> getNativeCache() {
+        return cache;
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    private Invalidation pendingInvalidation() {
+        return TransactionScoped.get(this, Invalidation::new, this::apply);
+    }
+
+    private void apply(Invalidation invalidation) {
+        if (invalidation.usernames == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(invalidation.usernames);
+        }
+    }
+
+    private static boolean usable() {
+        return !(TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    // 한 트랜잭션에서 커밋 후에 비울 username 들 (null 이면 전부)
+    private class Invalidation {
+
+        private Set<String> usernames = new HashSet<>();
+
+        void add(String username) {
+            if (usernames != null) {
+                usernames.add(username);
+                if (usernames.size() > invalidateAllThreshold) {
+                    all();
+                }
+            }
+        }
+
+        void all() {
+            usernames = null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package study.data_jpa.repository.support;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import study.data_jpa.entity.Member;
+
+// Member 엔티티 리스너 - 회원이 저장/삭제되면 그 username 의 MemberLookupCache 엔트리를 커밋 후에 비운다.
+// MemberRepository.save/delete, MemberJpaRepository.save/delete 가 모두 persist/remove 를 거치므로 한 곳에서 처리한다.
+// 스프링 부트가 Hibernate 에 SpringBeanContainer 를 등록하므로 스프링 빈(MemberLookupConfig)이 주입된다.
+// username 을 바꾸는 메서드는 없으므로 수정(@PostUpdate)은 처리하지 않는다.
+// 트랜잭션 안에서는 username 을 모아 두었다가 커밋 후에 한 번에 비운다. (MemberLookupCache.invalidateAfterCommit)
+@RequiredArgsConstructor
+public class MemberLookupCacheListener {
+
+    private final MemberLookupCache memberLookupCache;
+
+    @PostPersist
+    @PostRemove
+    void invalidate(Member member) {
+        memberLookupCache.invalidateAfterCommit(member.getUsername());
+    }
+}
@@ -0,0 +1,61 @@
+package study.data_jpa.repository.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// 조건(predicate)별 count 결과를 잠깐 캐시한다. (예: Member.age = 20 -> 25,000)
+// 페이지를 넘길 때마다 같은 count 를 다시 세지 않기 위한 것이라 TTL 을 짧게 두고, 그 사이의 변경은 반영되지 않는다.
+// 쓰기 트랜잭션 안에서는 아직 커밋하지 않은 변경이 있을 수 있으므로 캐시를 읽지도 쓰지도 않는다.
+public class PageCountCache {
+
+    private final Cache<Object, Long> cache;
+
+    public PageCountCache(Duration ttl, long maximumSize) {
+        this.cache = ttl.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    // 같은 조건이면 같은 키가 나오도록 조건 이름과 파라미터로 만든다.
+    public static Object key(String predicate, Object... args) {
+        return List.of(predicate, Arrays.asList(args));
+    }
+
+    public long get(Object key, LongSupplier count) {
+        Long cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long total = count.getAsLong();
+        put(key, total);
+        return total;
+    }
+
+    public Long getIfPresent(Object key) {
+        return usable() ? cache.getIfPresent(key) : null;
+    }
+
+    public void put(Object key, long total) {
+        if (usable()) {
+            cache.put(key, total);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private boolean usable() {
+        return cache != null && !(TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+}
@@ -0,0 +1,99 @@
+package study.data_jpa.repository.support;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Page 조회 - content 쿼리와 count 쿼리를 실행하는 방식을 바꾼다.
+// 1. 최근에 센 count 가 캐시에 있으면 count 쿼리를 생략한다.
+// 2. parallel 이면 count 쿼리를 다른 스레드(= 다른 커넥션)에서 content 쿼리와 동시에 실행한다. 지연 시간이 합이 아니라 큰 쪽이 된다.
+// 3. content 가 페이지 크기보다 적으면 전체 개수를 바로 알 수 있으므로 count 결과를 기다리지 않는다.
+// 호출한 쪽이 트랜잭션 안이면 다른 커넥션에서는 커밋하지 않은 데이터가 안 보이므로 같은 스레드에서 순서대로 실행한다.
+// 다른 스레드의 count 는 커넥션을 하나 더 쓰므로 JdbcAdmissionLimiter 허가도 하나 더 받는다. 남는 허가가 없으면 같은 스레드에서 센다.
+// (요청마다 커넥션 두 개를 기다리게 두면, 풀 크기만큼의 요청이 하나씩 쥔 채로 두 번째를 기다리다 connectionTimeout 으로 멈춘다)
+public class ParallelPageExecutor {
+
+    private final PageCountCache countCache;
+    private final AsyncTaskExecutor countExecutor;
+    private final boolean parallel;
+    private final JdbcAdmissionLimiter admissionLimiter;
+
+    public ParallelPageExecutor(PageCountCache countCache, AsyncTaskExecutor countExecutor, boolean parallel,
+                                JdbcAdmissionLimiter admissionLimiter) {
+        this.countCache = countCache;
+        this.countExecutor = countExecutor;
+        this.parallel = parallel;
+        this.admissionLimiter = admissionLimiter;
+    }
+
+    public <T> Page<T> execute(Pageable pageable, Supplier<List<T>> content, Object countKey, LongSupplier count) {
+        if (pageable.isUnpaged()) {
+            List<T> all = content.get();
+            return new PageImpl<>(all, pageable, all.size());
+        }
+
+        Long cached = countCache.getIfPresent(countKey);
+        if (cached != null) {
+            return PageableExecutionUtils.getPage(content.get(), pageable, () -> cached);
+        }
+
+        CompletableFuture<Long> total = null;
+        if (parallel && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            total = admissionLimiter.tryAcquireExtra().map(permit -> countAsync(count, permit)).orElse(null);
+        }
+        try {
+            CompletableFuture<Long> parallelTotal = total;
+            return PageableExecutionUtils.getPage(content.get(), pageable, () -> {
+                long value = parallelTotal != null ? join(parallelTotal) : count.getAsLong();
+                countCache.put(countKey, value);
+                return value;
+            });
+        } finally {
+            if (total != null) {
+                total.cancel(false); // 이미 끝났으면 아무 일도 없다. count 가 필요 없었던 경우 결과를 버린다.
+            }
+        }
+    }
+
+    // 허가는 count 를 실행한 스레드에서 돌려준다.
+    // supplyAsync 는 실행 전에 취소되면 작업을 건너뛰어 허가가 새므로, 취소되었어도 작업은 실행해서 허가를 닫는다.
+    private CompletableFuture<Long> countAsync(LongSupplier count, JdbcAdmissionLimiter.Permit permit) {
+        CompletableFuture<Long> total = new CompletableFuture<>();
+        try {
+            countExecutor.execute(() -> {
+                try (permit) {
+                    if (!total.isDone()) {
+                        total.complete(count.getAsLong());
+                    }
+                } catch (RuntimeException e) {
+                    total.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        return total;
+    }
+
+    private static long join(CompletableFuture<Long> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
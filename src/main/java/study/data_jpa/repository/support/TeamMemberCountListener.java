@@ -0,0 +1,104 @@
+package study.data_jpa.repository.support;
+
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Team.memberCount 를 DB 에서 맞춰주는 Hibernate 이벤트 리스너 (TeamMemberCountConfig 에서 등록)
+// flush 중에 insert/update/delete 되는 Member 의 team 을 보고 팀별 증감을 모아 두었다가,
+// flush 가 끝나면 팀마다 update ... set member_count = member_count + :delta 를 한 번씩 실행한다. (TeamMemberCounts)
+// - Team 엔티티를 고치지 않으므로 Member 를 준영속 Team 과 저장해도(saveAllBatched 의 clear 이후 등) 빠지지 않는다.
+// - 같은 팀에 동시에 가입해도 Team 의 @Version 충돌이 나지 않는다. (행 잠금만 커밋까지 기다린다)
+// - insert 는 JDBC batch 로 모아서 보내고, 팀 update 는 flush 마다 팀 수만큼만 나간다.
+// 이벤트의 state 배열을 쓰므로 한 flush 에서 저장 후 팀을 바꾼 경우도 insert(이전 팀) + update(이전 -> 새 팀)로 맞는다.
+// 벌크 연산은 이벤트를 거치지 않으므로 MemberRepositoryImpl 이 직접 더한다.
+public class TeamMemberCountListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            add(team(event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // oldState 는 스냅샷이 없을 때(준영속 엔티티를 바로 update 할 때)만 null 인데, Member 는 merge 로만 저장하므로 항상 있다.
+        if (event.getEntity() instanceof Member && event.getOldState() != null) {
+            Long from = team(event.getPersister(), event.getOldState());
+            Long to = team(event.getPersister(), event.getState());
+            if (!Objects.equals(from, to)) {
+                add(from, -1);
+                add(to, 1);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            add(team(event.getPersister(), event.getDeletedState()), -1);
+        }
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        apply(event.getSession());
+    }
+
+    // 쿼리 전에 자동으로 flush 한 경우에도 그 쿼리가 맞는 memberCount 를 읽도록 바로 반영한다.
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        apply(event.getSession());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 팀 id 순서로 실행해서, 여러 팀을 바꾸는 트랜잭션끼리 서로 반대 순서로 행을 잠그지 않게 한다.
+    // update 가 다시 자동 flush 를 부르므로 실행하기 전에 비워 둔다.
+    private void apply(EventSource session) {
+        Map<Long, Long> deltas = TransactionScoped.get(this, TreeMap::new);
+        if (deltas == null || deltas.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> pending = new TreeMap<>(deltas);
+        deltas.clear();
+        pending.forEach((teamId, delta) -> TeamMemberCounts.add(session, teamId, delta));
+    }
+
+    private void add(Long teamId, long delta) {
+        if (teamId == null) {
+            return;
+        }
+        Map<Long, Long> deltas = TransactionScoped.get(this, TreeMap::new);
+        if (deltas == null) {
+            throw new IllegalStateException("Member writes must run inside a Spring-managed transaction");
+        }
+        deltas.merge(teamId, delta, Long::sum);
+    }
+
+    // 프록시여도 id 는 초기화하지 않고 읽을 수 있다.
+    private static Long team(EntityPersister persister, Object[] state) {
+        Team team = (Team) state[persister.getPropertyIndex("team")];
+        return team == null ? null : team.getId();
+    }
+}
@@ -0,0 +1,42 @@
+package study.data_jpa.repository.support;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+import study.data_jpa.entity.Team;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// Team.memberCount 에 delta 를 DB 에서 더한다. (TeamMemberCountListener, MemberRepositoryImpl)
+// JPQL 벌크 update 는 실행 후 Team 2차 캐시 region 을 통째로 비우므로(BulkOperationCleanupAction),
+// 네이티브 update 에 아무 엔티티도 쓰지 않는 빈 query space 를 지정해 비우지 않게 하고, 바뀐 팀만 캐시에서 뺀다.
+// 커밋 전에 다른 트랜잭션이 지난 값을 다시 캐시에 올릴 수 있으므로 커밋 후에 한 번 더 뺀다.
+public final class TeamMemberCounts {
+
+    private static final Object EVICT_AFTER_COMMIT = new Object();
+
+    private TeamMemberCounts() {
+    }
+
+    public static void add(EntityManager em, Long teamId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        em.createNamedQuery("Team.addMemberCountById")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("")
+                .setParameter("delta", delta)
+                .setParameter("teamId", teamId)
+                .executeUpdate();
+
+        Cache cache = em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Team.class, teamId);
+        Set<Long> evicted = TransactionScoped.get(EVICT_AFTER_COMMIT, HashSet::new,
+                teamIds -> teamIds.forEach(id -> cache.evictEntityData(Team.class, id)));
+        if (evicted != null) {
+            evicted.add(teamId);
+        }
+    }
+}
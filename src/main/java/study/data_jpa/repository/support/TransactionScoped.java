@@ -0,0 +1,59 @@
+package study.data_jpa.repository.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// 트랜잭션마다 하나씩 만들어 TransactionSynchronizationManager 에 묶어 두는 값
+// 같은 트랜잭션에서 몇 번을 꺼내든 처음 만든 것을 돌려주고, TransactionSynchronization 도 한 번만 등록한다.
+// (엔티티마다 동기화를 등록하면 10만 건을 저장하는 트랜잭션은 커밋할 때까지 10만 개를 들고 있게 된다)
+// REQUIRES_NEW 등으로 트랜잭션이 잠시 멈추면 같이 풀었다가, 다시 이어질 때 묶는다.
+public final class TransactionScoped {
+
+    private TransactionScoped() {
+    }
+
+    // 트랜잭션 동기화가 없으면 null 을 돌려준다.
+    public static <T> T get(Object key, Supplier<T> factory) {
+        return get(key, factory, resource -> {
+        });
+    }
+
+    // afterCommit - 커밋되면 모아 둔 값으로 한 번 실행한다. (롤백되면 버린다)
+    @SuppressWarnings("unchecked")
+    public static <T> T get(Object key, Supplier<T> factory, Consumer<? super T> afterCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        T resource = (T) TransactionSynchronizationManager.getResource(key);
+        if (resource != null) {
+            return resource;
+        }
+        T created = factory.get();
+        TransactionSynchronizationManager.bindResource(key, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(key);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(key, created);
+            }
+
+            @Override
+            public void afterCommit() {
+                afterCommit.accept(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            }
+        });
+        return created;
+    }
+}
@@ -0,0 +1,37 @@
+package study.data_jpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import study.data_jpa.dto.MemberDashboardDto;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// 팀 조회와 나이별 회원 조회를 동시에 실행해서 합친다.
+// 순서대로 실행하면 응답 시간이 두 조회 시간의 합이지만, 동시에 실행하면 더 오래 걸리는 쪽만큼만 걸린다.
+// 각 조회는 repositoryExecutor 스레드에서 자기 트랜잭션으로 실행되므로 여기에는 @Transactional 을 붙이지 않는다.
+@Service
+@RequiredArgsConstructor
+public class MemberDashboardService {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+
+    public CompletableFuture<MemberDashboardDto> dashboard(Long teamId, int age) {
+        CompletableFuture<Optional<Team>> team = teamRepository.findByIdAsync(teamId);
+        CompletableFuture<List<Member>> members = memberRepository.findByAgeAsync(age);
+        return team.thenCombine(members, (findTeam, membersOfAge) -> {
+            Team t = findTeam.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "team not found: " + teamId));
+            return new MemberDashboardDto(t.getId(), t.getName(), t.getMemberCount(),
+                    membersOfAge.stream().map(MemberDto::new).toList());
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package study.data_jpa.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.MemberRowRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    // MemberDto 의 JSON 필드 이름 - 미리 UTF-8 로 인코딩해 두고 행마다 그대로 복사한다.
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+    private final MemberRepository memberRepository;
+    private final MemberRowRepository memberRowRepository;
+    private final ObjectMapper objectMapper;
+
+    // 전체 회원을 NDJSON(한 줄에 회원 하나)으로 out 에 쓴다.
+    // 한 건씩 읽어서 바로 쓰므로 회원 수가 아무리 많아도 메모리 사용량은 fetch size 만큼으로 일정하다.
+    // ResultSet 의 컬럼 값을 JsonGenerator 로 바로 쓰므로 MemberDto 를 만들거나 Jackson 이 리플렉션으로 직렬화하지 않는다.
+    // 출력은 exportNdjsonByJpql 과 같다. (MemberDto 를 writeObject 한 것과 같은 필드 순서/이름)
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            long count = memberRowRepository.forEachMemberRow((id, username, teamName) -> {
+                generator.writeStartObject();
+                generator.writeFieldName(ID);
+                generator.writeNumber(id);
+                generator.writeFieldName(USERNAME);
+                generator.writeString(username);
+                generator.writeFieldName(TEAM_NAME);
+                generator.writeString(teamName); // null 이면 null 을 쓴다.
+                generator.writeEndObject();
+            });
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+            return count;
+        }
+    }
+
+    // 이전 방식 - JPQL 생성자 표현식으로 MemberDto 를 스트림으로 읽어서 writeObject 로 직렬화한다.
+    // 행마다 MemberDto 와 Hibernate 결과 처리 객체가 생기므로 exportNdjson 보다 할당이 많다. (ExportBenchmark 로 비교)
+    @Transactional(readOnly = true)
+    public long exportNdjsonByJpql(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto();
+             JsonGenerator generator = createGenerator(out)) {
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // out 은 호출한 쪽이 닫는다.
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        return generator;
+    }
+}
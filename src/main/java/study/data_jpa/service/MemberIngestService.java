@@ -0,0 +1,215 @@
+package study.data_jpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.dto.MemberCreateCommand;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 회원 가입 write-behind - 요청마다 트랜잭션을 열지 않고 큐에 모아서 한 트랜잭션으로 저장한다. (최대 batchSize 건)
+// 쓰기 스레드 하나가 앞 배치를 커밋하는 동안 쌓인 요청을 다음 배치로 가져가고, maxDelay 가 있으면 배치가 덜 찼을 때 그만큼 더 기다린다.
+// submit 이 돌려준 future 는 그 회원이 들어간 트랜잭션이 커밋된 뒤에 id 로 완료된다. (커밋 전에는 응답하지 않는다)
+// 큐가 가득 차면 offerTimeout 동안 기다리고(backpressure), 그래도 자리가 없으면 RejectedExecutionException 을 던진다.
+// 종료할 때는 새 요청을 받지 않고, 이미 받은 요청은 전부 저장한 뒤에 멈춘다. (웹 서버보다 나중에, DataSource 보다 먼저)
+@Slf4j
+public class MemberIngestService implements SmartLifecycle {
+
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096; // 웹 서버 graceful shutdown(DEFAULT_PHASE - 1024) 뒤에 멈춘다.
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TransactionTemplate transactionTemplate;
+    private final MemberJpaRepository memberJpaRepository;
+    private final TeamRepository teamRepository;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+
+    private final Timer ackTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter rejectedCounter;
+
+    // submit(읽기 락)과 stop(쓰기 락)이 겹치지 않게 해서, stop 이후에 큐에 들어오는 요청이 없도록 한다.
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile boolean accepting;
+    private Thread writer;
+
+    public MemberIngestService(PlatformTransactionManager transactionManager, MemberJpaRepository memberJpaRepository,
+                               TeamRepository teamRepository, int queueCapacity, int batchSize,
+                               Duration maxDelay, Duration offerTimeout, MeterRegistry meterRegistry) {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("queueCapacity and batchSize must be positive: " + queueCapacity + ", " + batchSize);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memberJpaRepository = memberJpaRepository;
+        this.teamRepository = teamRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+
+        this.ackTimer = Timer.builder("member.ingest.ack")
+                .description("Time from submit until the member is committed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("member.ingest.batch.size")
+                .description("Members committed per transaction")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("member.ingest.rejected")
+                .description("Submits rejected because the queue stayed full for offerTimeout")
+                .register(meterRegistry);
+        Gauge.builder("member.ingest.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public CompletableFuture<Long> submit(MemberCreateCommand command) {
+        PendingWrite write = new PendingWrite(command, new CompletableFuture<>(), System.nanoTime());
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new RejectedExecutionException("member ingest is not running");
+            }
+            if (!queue.offer(write, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejectedCounter.increment();
+                throw new RejectedExecutionException("member ingest queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for queue space", e);
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        return write.future();
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        writer = Thread.ofPlatform().name("member-ingest").start(this::runWriter);
+    }
+
+    // 새 요청을 막고, 쓰기 스레드가 큐를 다 비우고 끝날 때까지 기다린다.
+    @Override
+    public void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("member ingest stopped, queue drained");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return accepting || (writer != null && writer.isAlive());
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (true) {
+            PendingWrite first = poll(TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS));
+            if (first == null) {
+                if (!accepting && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            fill(batch, System.nanoTime() + maxDelayNanos);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // batchSize 가 찰 때까지, 첫 요청을 받은 지 maxDelay 가 지날 때까지 더 모은다. 종료 중이면 기다리지 않는다.
+    private void fill(List<PendingWrite> batch, long deadline) {
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !accepting) {
+                return;
+            }
+            PendingWrite next = poll(remaining);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private PendingWrite poll(long timeoutNanos) {
+        try {
+            return queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // 쓰기 스레드는 stop 에서도 인터럽트하지 않는다. 남은 요청은 계속 비운다.
+            return queue.poll();
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<Member> saved;
+        try {
+            saved = transactionTemplate.execute(status -> batch.stream().map(write -> save(write.command())).toList());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                complete(batch.get(0), null, e);
+                return;
+            }
+            // 잘못된 요청 하나(없는 팀 등) 때문에 같은 배치의 나머지가 실패하지 않도록 하나씩 다시 저장한다.
+            log.warn("member ingest batch of {} failed, retrying one by one: {}", batch.size(), e.toString());
+            batch.forEach(write -> write(List.of(write)));
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), saved.get(i).getId(), null);
+        }
+    }
+
+    private Member save(MemberCreateCommand command) {
+        Team team = command.teamId() == null ? null : teamRepository.getReferenceById(command.teamId());
+        return memberJpaRepository.save(new Member(command.username(), command.age(), team));
+    }
+
+    private void complete(PendingWrite write, Long id, Throwable failure) {
+        ackTimer.record(System.nanoTime() - write.submittedAt(), TimeUnit.NANOSECONDS);
+        if (failure == null) {
+            write.future().complete(id);
+        } else {
+            write.future().completeExceptionally(failure);
+        }
+    }
+
+    private record PendingWrite(MemberCreateCommand command, CompletableFuture<Long> future, long submittedAt) {
+    }
+}
@@ -0,0 +1,40 @@
+package study.data_jpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.support.MemberLookupCache;
+
+import java.util.Optional;
+
+// username 으로 회원 한 명 찾기 - 로그인처럼 같은 이름(없는 이름 포함)을 반복해서 찾는 곳은
+// MemberRepository.findMemberByUsername / findOptionalByUsername / findMembers 대신 이 메서드를 쓴다.
+// username -> id 는 MemberLookupCache 에서, 엔티티는 id 로 영속성 컨텍스트/2차 캐시에서 읽으므로 반복 조회에 SQL 이 나가지 않는다.
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberLookupService {
+
+    private final MemberRepository memberRepository;
+    private final MemberLookupCache memberLookupCache;
+
+    public Optional<Member> findByUsername(String username) {
+        Optional<Long> id = memberLookupCache.get(username, this::loadId);
+        if (id.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Member> member = memberRepository.findById(id.get());
+        if (member.isEmpty()) {
+            // 캐시에 남아 있던 id 의 회원이 그 사이 삭제됐다. (삭제 커밋 직후 아직 캐시를 비우기 전)
+            memberLookupCache.invalidate(username);
+            return memberRepository.findOptionalByUsername(username);
+        }
+        return member;
+    }
+
+    private Optional<Long> loadId(String username) {
+        return memberRepository.findOptionalByUsername(username).map(Member::getId);
+    }
+}
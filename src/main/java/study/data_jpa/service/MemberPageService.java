@@ -0,0 +1,35 @@
+package study.data_jpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.support.PageCountCache;
+import study.data_jpa.repository.support.ParallelPageExecutor;
+
+// 페이징 조회 - content 와 count 를 ParallelPageExecutor 로 실행한다. (app.paging.parallel-count 로 병렬 실행을 켠다)
+// content/count 를 각각 별도의 읽기 전용 트랜잭션으로 실행해야 병렬로 돌릴 수 있으므로 여기에는 @Transactional 을 붙이지 않는다.
+@Service
+@RequiredArgsConstructor
+public class MemberPageService {
+
+    private final MemberRepository memberRepository;
+    private final ParallelPageExecutor pageExecutor;
+
+    public Page<Member> findByAge(int age, Pageable pageable) {
+        return pageExecutor.execute(pageable,
+                () -> memberRepository.findContentByAge(age, pageable),
+                PageCountCache.key("Member.age", age),
+                () -> memberRepository.countByAge(age));
+    }
+
+    public Page<MemberDto> findMemberDto(Pageable pageable) {
+        return pageExecutor.execute(pageable,
+                () -> memberRepository.findMemberDtoContent(pageable),
+                PageCountCache.key("Member"),
+                memberRepository::count);
+    }
+}
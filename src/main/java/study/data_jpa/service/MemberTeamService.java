@@ -0,0 +1,116 @@
+package study.data_jpa.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 회원 팀 이동 - Member.team 과 이전/새 팀의 memberCount 를 한 트랜잭션에서 바꾼다. (memberCount 는 TeamMemberCountListener 가 DB 에서 더한다)
+// 같은 회원을 동시에 바꾸면 Member 의 @Version 충돌(OptimisticLockingFailureException)이 나고,
+// 그러면 새 트랜잭션으로 처음부터(다시 읽어서) 재시도한다. 재시도 사이에는 늘어나는 간격 + 랜덤으로 쉬어서 다시 부딪히지 않게 한다.
+// 재시도마다 트랜잭션을 새로 열어야 하므로 @Transactional 대신 TransactionTemplate 을 쓴다.
+public class MemberTeamService {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Counter retryCounter;
+    private final Counter exhaustedCounter;
+
+    public MemberTeamService(PlatformTransactionManager transactionManager, MemberRepository memberRepository,
+                             TeamRepository teamRepository, int maxAttempts, Duration initialBackoff,
+                             Duration maxBackoff, MeterRegistry meterRegistry) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.retryCounter = Counter.builder("member.change-team.retries")
+                .description("changeTeam attempts retried after an optimistic lock conflict")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("member.change-team.exhausted")
+                .description("changeTeam calls that still conflicted after maxAttempts")
+                .register(meterRegistry);
+    }
+
+    // 낙관적 락 + 재시도 - 충돌이 없으면 락을 기다리지 않는다.
+    public void changeTeam(Long memberId, Long teamId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Member member = memberRepository.findById(memberId).orElseThrow(() -> notFound("member", memberId));
+                    member.changeTeam(findTeam(teamId));
+                });
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    throw e;
+                }
+                retryCounter.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    // 비관적 락 - 회원, 이전 팀, 새 팀을 select ... for update 로 잠그고 바꾼다. 충돌하는 트랜잭션은 순서대로 기다린다.
+    // 두 팀은 항상 id 순서로 잠가서 서로 반대 방향으로 이동하는 트랜잭션끼리 데드락이 나지 않게 한다.
+    public void changeTeamPessimistic(Long memberId, Long teamId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = memberRepository.findByIdForUpdate(memberId).orElseThrow(() -> notFound("member", memberId));
+            Long oldTeamId = member.getTeam() == null ? null : member.getTeam().getId();
+            Team team;
+            if (oldTeamId != null && oldTeamId < teamId) {
+                lockTeam(oldTeamId);
+                team = lockTeam(teamId);
+            } else {
+                team = lockTeam(teamId);
+                if (oldTeamId != null && !oldTeamId.equals(teamId)) {
+                    lockTeam(oldTeamId);
+                }
+            }
+            member.changeTeam(team);
+        });
+    }
+
+    private Team findTeam(Long teamId) {
+        return teamRepository.findById(teamId).orElseThrow(() -> notFound("team", teamId));
+    }
+
+    private Team lockTeam(Long teamId) {
+        return teamRepository.findByIdForUpdate(teamId).orElseThrow(() -> notFound("team", teamId));
+    }
+
+    // initialBackoff * 2^(attempt-1) 를 maxBackoff 로 자르고, 그 절반 ~ 전체 사이에서 랜덤으로 쉰다.
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(sleepNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while backing off", e);
+        }
+    }
+
+    private static ResponseStatusException notFound(String entity, Long id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, entity + " not found: " + id);
+    }
+}
@@ -0,0 +1,39 @@
+package study.data_jpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.dto.RosterMember;
+import study.data_jpa.dto.TeamRosterDto;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// 팀 목록 + 팀별 회원 일부
+// 1. 팀만 페이징해서 조회한다. (+ count)
+// 2. 그 팀들의 회원을 팀마다 membersPerTeam 명까지 in 절 한 번으로 조회한다.
+// 페이지 크기나 팀별 인원과 상관없이 SQL 은 항상 3번(팀, count, 회원)이고, Team.members 컬렉션은 초기화하지 않는다.
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TeamRosterService {
+
+    private final TeamRepository teamRepository;
+
+    public Page<TeamRosterDto> findRosters(Pageable pageable, int membersPerTeam) {
+        Page<Team> teams = teamRepository.findAll(pageable);
+        List<Long> teamIds = teams.map(Team::getId).getContent();
+
+        Map<Long, List<RosterMember>> members = teamIds.isEmpty() || membersPerTeam <= 0 ? Map.of() :
+                teamRepository.findRosterMembers(teamIds, membersPerTeam).stream()
+                        .collect(Collectors.groupingBy(RosterMember::teamId));
+
+        return teams.map(team -> new TeamRosterDto(team.getId(), team.getName(), team.getMemberCount(),
+                members.getOrDefault(team.getId(), List.of())));
+    }
+}
@@ -0,0 +1,93 @@
+package study.data_jpa.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import study.data_jpa.controller.MemberSortPolicy;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// 배포 직후 첫 요청들이 느리지 않도록 기동할 때 미리 해두는 일
+// 1. 커넥션 풀을 minimum-idle 만큼 채운다. (Hikari 는 처음 한 개만 바로 만들고 나머지는 백그라운드에서 천천히 채운다)
+// 2. /members, /members/scroll, /members/dashboard 가 쓰는 조회를 몇 번씩 실행해서
+//    JPQL -> SQL 변환(쿼리 플랜 캐시), H2 세션의 SQL 파싱, 리포지토리 프록시/JIT 를 데워둔다.
+@Slf4j
+public class StartupWarmup {
+
+    private static final int WARMUP_AGE = 0;
+
+    private final DataSource dataSource;
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final MemberSortPolicy memberSortPolicy;
+    private final int iterations;
+    private final int pageSize;
+
+    public StartupWarmup(DataSource dataSource, MemberRepository memberRepository, TeamRepository teamRepository,
+                         MemberSortPolicy memberSortPolicy, int iterations, int pageSize) {
+        this.dataSource = dataSource;
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+        this.memberSortPolicy = memberSortPolicy;
+        this.iterations = iterations;
+        this.pageSize = pageSize;
+    }
+
+    public void run() throws SQLException {
+        long start = System.nanoTime();
+        int connections = warmUpConnections();
+        warmUpQueries();
+        log.info("startup warm-up opened {} connections and ran hot queries {} times in {} ms",
+                connections, iterations, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // 커넥션을 동시에 minimum-idle 개 빌려서 풀이 그만큼 실제 커넥션을 만들게 한 뒤 돌려준다.
+    public int warmUpConnections() throws SQLException {
+        int size = targetIdle();
+        List<Connection> borrowed = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = dataSource.getConnection();
+                borrowed.add(connection);
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : borrowed) {
+                connection.close();
+            }
+        }
+        return size;
+    }
+
+    public void warmUpQueries() {
+        PageRequest page = PageRequest.of(0, pageSize);
+        // GET /members 는 MemberSortPolicy 가 id 정렬을 붙인 뒤 조회하므로 같은 정렬로 데운다. (정렬이 다르면 JPQL 도, 플랜 캐시 항목도 다르다)
+        Pageable membersPage = memberSortPolicy.apply(page);
+        for (int i = 0; i < iterations; i++) {
+            memberRepository.findMemberDtoContent(membersPage);
+            memberRepository.count();
+            memberRepository.findContentByAge(WARMUP_AGE, page);
+            memberRepository.countByAge(WARMUP_AGE);
+            memberRepository.findAllByOrderByIdAsc(ScrollPosition.keyset(), Limit.of(pageSize));
+            memberRepository.findByAgeAsync(WARMUP_AGE).join();
+            teamRepository.findByIdAsync(0L).join();
+        }
+    }
+
+    private int targetIdle() throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            return Math.max(hikari.getMinimumIdle(), 1);
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,101 @@
+package study.data_jpa.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcAdmissionLimiterTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void limitsConcurrencyOfVirtualThreads() throws Exception {
+        JdbcAdmissionLimiter limiter = new JdbcAdmissionLimiter(4, Duration.ofSeconds(10), registry);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // 가상 스레드 1,000 개가 동시에 들어와도 허가 수(4) 만큼만 동시에 실행된다.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?>[] futures = IntStream.range(0, 1_000)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        try (JdbcAdmissionLimiter.Permit permit = limiter.acquire()) {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            Thread.sleep(1);
+                            running.decrementAndGet();
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxRunning.get()).isEqualTo(4);
+        assertThat(limiter.availablePermits()).isEqualTo(4);
+        assertThat(registry.get("jdbc.admission.wait").timer().count()).isEqualTo(1_000);
+        assertThat(registry.get("jdbc.admission.wait").timer().max(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    public void nestedAcquireDoesNotWait() {
+        JdbcAdmissionLimiter limiter = new JdbcAdmissionLimiter(1, Duration.ofMillis(10), registry);
+
+        try (JdbcAdmissionLimiter.Permit outer = limiter.acquire();
+             JdbcAdmissionLimiter.Permit inner = limiter.acquire()) {
+            assertThat(limiter.availablePermits()).isZero();
+        }
+
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void extraPermitDoesNotWait() {
+        JdbcAdmissionLimiter limiter = new JdbcAdmissionLimiter(2, Duration.ofSeconds(10), registry);
+
+        try (JdbcAdmissionLimiter.Permit permit = limiter.acquire()) {
+            // 같은 스레드라도 다른 커넥션에 쓸 허가는 따로 받는다.
+            JdbcAdmissionLimiter.Permit extra = limiter.tryAcquireExtra().orElseThrow();
+            assertThat(limiter.availablePermits()).isZero();
+            // 남는 허가가 없으면 기다리지 않고 빈 값
+            assertThat(limiter.tryAcquireExtra()).isEmpty();
+            extra.close();
+        }
+
+        assertThat(limiter.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    public void rejectsAfterMaxWait() throws Exception {
+        JdbcAdmissionLimiter limiter = new JdbcAdmissionLimiter(1, Duration.ofMillis(50), registry);
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try (JdbcAdmissionLimiter.Permit permit = limiter.acquire()) {
+                acquired.countDown();
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        acquired.await();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(JdbcAdmissionTimeoutException.class);
+        assertThat(registry.get("jdbc.admission.rejected").counter().count()).isEqualTo(1);
+
+        done.countDown();
+        holder.join();
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,146 @@
+package study.data_jpa.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.repository.support.DataVersion;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberPageCacheTest {
+
+    private static final String PAGE = "/members?page=0&size=5&sort=id,desc";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    DataVersion dataVersion;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+    Team team;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        team = teamRepository.save(new Team("etagTeam"));
+        memberRepository.save(new Member("etag1", 70, team));
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteByTeam(team);
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void bulkImportBumpsVersionOnce() {
+        AtomicInteger changes = new AtomicInteger();
+        dataVersion.onChange(changes::incrementAndGet);
+        long before = dataVersion.current();
+
+        // when - 한 트랜잭션에서 1만 건 저장 (Member 1만 번 + Team 인원 수 update 마다 리스너가 불린다)
+        int synchronizations = transactionTemplate.execute(status -> {
+            memberJpaRepository.saveAllBatched(IntStream.range(0, 10_000).mapToObj(i -> new Member("etagBulk" + i, 71, team)), 1000);
+            return TransactionSynchronizationManager.getSynchronizations().size();
+        });
+
+        // then - 등록된 동기화 수는 저장 건수와 상관없고, 커밋 후 버전과 PageCountCache 비우기는 한 번씩만
+        assertThat(synchronizations).isLessThan(10);
+        assertThat(dataVersion.current()).isEqualTo(before + 1);
+        assertThat(changes.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void repeatedPageIsServedFromCacheAndRevalidatedWithEtag() throws Exception {
+        String etag = etag(PAGE);
+
+        // when
+        statistics.clear();
+        byte[] cached = mockMvc.perform(get(PAGE)).andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn().getResponse().getContentAsByteArray();
+        mockMvc.perform(get(PAGE).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        // then - 두 요청 모두 조회 없이 캐시된 응답으로 끝난다.
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(cached).isNotEmpty();
+    }
+
+    @Test
+    public void writeThroughRepositoryInvalidatesPage() throws Exception {
+        String etag = etag(PAGE);
+        long version = dataVersion.current();
+
+        // when
+        memberRepository.save(new Member("etag2", 70, team));
+
+        // then - 새 회원이 들어간 페이지를 다시 만들고 ETag 가 바뀐다.
+        assertThat(dataVersion.current()).isGreaterThan(version);
+        mockMvc.perform(get(PAGE).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertThat(etag(PAGE)).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void bulkUpdateBumpsVersion() {
+        long version = dataVersion.current();
+
+        memberRepository.bulkAgePlus(70);
+
+        assertThat(dataVersion.current()).isGreaterThan(version);
+    }
+
+    @Test
+    public void rolledBackWriteDoesNotBumpVersion() {
+        long version = dataVersion.current();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("etagRollback", 70, team));
+            memberRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(dataVersion.current()).isEqualTo(version);
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
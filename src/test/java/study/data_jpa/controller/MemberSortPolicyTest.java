@@ -0,0 +1,140 @@
+package study.data_jpa.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.SqlCaptor;
+import study.data_jpa.repository.TeamRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// GET /members 의 정렬 제한 - 허용한 정렬은 인덱스 순서대로 읽고(+ id), 나머지는 거절/변환되는지 확인한다.
+// 실제로 실행된 SQL 을 SqlCaptor 로 잡아 EXPLAIN 하므로, 정렬 컬럼이나 인덱스가 바뀌면 여기서 깨진다.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.data_jpa.repository.SqlCaptor")
+@Transactional
+class MemberSortPolicyTest {
+
+    @Autowired
+    MemberSortPolicy memberSortPolicy;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        Team team = teamRepository.save(new Team("sortTeam"));
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("sort" + i, i % 3, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    // 허용한 정렬 키마다 실제로 나가는 ORDER BY 와 H2 실행 계획을 확인한다.
+    // "index sorted" 가 아니면(정렬 일부만 인덱스로 하거나 전부 따로 정렬하면) 실패로 본다.
+    @Test
+    public void allowedSortsAreIndexSorted() {
+        assertOrderBy(Sort.by("id"), "order by m1_0.member_id offset", "PRIMARY_KEY");
+        assertOrderBy(Sort.by(Sort.Direction.DESC, "id"), "order by m1_0.member_id desc offset", "PRIMARY_KEY");
+        assertOrderBy(Sort.by("username"),
+                "order by m1_0.username,m1_0.age,m1_0.member_id offset", "IDX_MEMBER_USERNAME_AGE");
+        assertOrderBy(Sort.by(Sort.Direction.DESC, "username"),
+                "order by m1_0.username desc,m1_0.age desc,m1_0.member_id desc offset", "IDX_MEMBER_USERNAME_AGE");
+        assertOrderBy(Sort.by("age"),
+                "order by m1_0.age,m1_0.username,m1_0.member_id offset", "IDX_MEMBER_AGE_USERNAME");
+        assertOrderBy(Sort.by(Sort.Direction.DESC, "age"),
+                "order by m1_0.age desc,m1_0.username desc,m1_0.member_id desc offset", "IDX_MEMBER_AGE_USERNAME");
+        assertOrderBy(Sort.unsorted(), "order by m1_0.member_id offset", "PRIMARY_KEY");
+    }
+
+    @Test
+    public void tiebreakerIsNotDuplicated() {
+        Sort requested = Sort.by(Sort.Order.desc("username"), Sort.Order.desc("id"));
+
+        assertThat(memberSortPolicy.translate(requested))
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "username", "age", "id"));
+    }
+
+    @Test
+    public void expensiveSortsAreRejected() {
+        assertRejected(Sort.by("team.name"));
+        assertRejected(Sort.by("version"));
+        assertRejected(Sort.by("username", "age")); // 정렬 키는 하나만
+        assertRejected(Sort.by(Sort.Order.asc("username"), Sort.Order.desc("id"))); // id 방향이 다르면 인덱스를 거꾸로 읽을 수 없다.
+    }
+
+    @Test
+    public void expensiveSortsAreRewrittenWhenNotRejecting() {
+        MemberSortPolicy policy = new MemberSortPolicy(Map.of("username", List.of("username", "age")), 100, false);
+
+        assertThat(policy.translate(Sort.by("team.name"))).isEqualTo(Sort.by("id"));
+        assertThat(policy.translate(Sort.by(Sort.Direction.DESC, "age"))).isEqualTo(Sort.by("id"));
+        assertThat(policy.translate(Sort.by("username"))).isEqualTo(Sort.by("username", "age", "id"));
+    }
+
+    @Test
+    public void pageSizeIsCapped() {
+        Pageable pageable = memberSortPolicy.apply(PageRequest.of(2, 5000));
+
+        assertThat(pageable.getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getPageSize()).isEqualTo(100);
+        assertThat(memberSortPolicy.apply(PageRequest.of(0, 20)).getPageSize()).isEqualTo(20);
+    }
+
+    private void assertOrderBy(Sort sort, String orderBy, String index) {
+        Pageable pageable = memberSortPolicy.apply(PageRequest.of(1, 3, sort));
+        SqlCaptor.clear();
+        List<MemberDto> content = memberRepository.findMemberDtoContent(pageable);
+        List<String> selects = SqlCaptor.selects();
+
+        assertThat(content).hasSize(3);
+        assertThat(selects).hasSize(1);
+        assertThat(selects.get(0)).contains(orderBy);
+        String plan = explain(selects.get(0));
+        assertThat(plan).as(plan).contains("\"M1_0\"\n    /* PUBLIC." + index);
+        assertThat(plan).as(plan).endsWith("/* index sorted */");
+    }
+
+    private void assertRejected(Sort sort) {
+        assertThatThrownBy(() -> memberSortPolicy.apply(PageRequest.of(0, 20, sort)))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("400");
+    }
+
+    private String explain(String sql) {
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                    ps.setObject(i, 3);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package study.data_jpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /teams 도 /members 와 같이 JDBC 허가를 받고 들어간다.
+@SpringBootTest(properties = "app.jdbc-admission.max-wait=100ms")
+@AutoConfigureMockMvc
+class TeamControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    JdbcAdmissionLimiter jdbcAdmissionLimiter;
+
+    @Test
+    public void teamsAreAdmissionLimited() throws Exception {
+        mockMvc.perform(get("/teams")).andExpect(status().isOk());
+
+        // 허가가 모두 쓰이고 있으면 기다리다 503 으로 돌려보낸다.
+        List<JdbcAdmissionLimiter.Permit> held = new ArrayList<>();
+        try {
+            while (jdbcAdmissionLimiter.availablePermits() > 0) {
+                jdbcAdmissionLimiter.tryAcquireExtra().ifPresent(held::add);
+            }
+            mockMvc.perform(get("/teams"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            held.forEach(JdbcAdmissionLimiter.Permit::close);
+        }
+    }
+}
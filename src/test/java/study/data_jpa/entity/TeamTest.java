@@ -0,0 +1,154 @@
+package study.data_jpa.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamTest {
+
+    private static final int BIG_TEAM_SIZE = 100_000;
+
+    @PersistenceContext
+    EntityManager em;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void memberCountFollowsChangeTeamAndRemove() {
+        // given
+        Team teamA = teamRepository.save(new Team("countTeamA"));
+        Team teamB = teamRepository.save(new Team("countTeamB"));
+        Member member1 = memberRepository.save(new Member("count1", 10, teamA));
+        Member member2 = memberRepository.save(new Member("count2", 20, teamA));
+        memberRepository.save(new Member("count3", 30, teamB));
+
+        // when
+        member1.changeTeam(teamB);
+        member2.changeTeam(teamA); // 같은 팀이면 아무것도 바뀌지 않는다.
+        memberRepository.delete(member2);
+        em.flush();
+        em.clear();
+
+        // then
+        Team findA = teamRepository.findById(teamA.getId()).orElseThrow();
+        Team findB = teamRepository.findById(teamB.getId()).orElseThrow();
+        assertThat(findA.getMemberCount()).isZero();
+        assertThat(findB.getMemberCount()).isEqualTo(2);
+        assertThat(findB.getMembers()).extracting(Member::getUsername).containsExactlyInAnyOrder("count1", "count3");
+    }
+
+    @Test
+    public void memberCountFollowsBulkMoveAndDelete() {
+        // given
+        Team teamA = teamRepository.save(new Team("bulkCountA"));
+        Team teamB = teamRepository.save(new Team("bulkCountB"));
+        memberRepository.save(new Member("bulkCount1", 10, teamA));
+        memberRepository.save(new Member("bulkCount2", 20, teamA));
+        memberRepository.save(new Member("bulkCount3", 30, teamB));
+
+        // when
+        memberRepository.moveMembers(teamA, teamB);
+
+        // then
+        assertThat(teamRepository.findById(teamA.getId()).orElseThrow().getMemberCount()).isZero();
+        assertThat(teamRepository.findById(teamB.getId()).orElseThrow().getMemberCount()).isEqualTo(3);
+
+        // when
+        memberRepository.deleteByTeam(teamB);
+
+        // then
+        assertThat(teamRepository.findById(teamB.getId()).orElseThrow().getMemberCount()).isZero();
+    }
+
+    @Test
+    public void memberCountFollowsBatchedAndDetachedSaves() {
+        // given - saveAllBatched 는 배치마다 clear 하므로 두 번째 배치부터 teamA 는 준영속이다.
+        Team teamA = teamRepository.save(new Team("detachedCountA"));
+        Team teamB = teamRepository.save(new Team("detachedCountB"));
+        em.flush();
+        memberJpaRepository.saveAllBatched(
+                IntStream.range(0, 250).mapToObj(i -> new Member("detachedCount" + i, 10, i % 5 == 0 ? teamB : teamA)), 100);
+
+        // when - 이미 준영속인 팀으로 따로 저장하고, 하나는 지운다.
+        memberRepository.save(new Member("detachedCountX", 20, teamB));
+        memberRepository.delete(memberRepository.findListByUsername("detachedCount0").get(0));
+        em.flush();
+        em.clear();
+
+        // then
+        assertMemberCountMatchesRows(teamA, 200);
+        assertMemberCountMatchesRows(teamB, 50);
+    }
+
+    @Test
+    public void changeTeamDoesNotLoadMembersOfBigTeam() {
+        // given - 10만 명짜리 팀을 SQL 로 바로 넣는다.
+        Team bigTeam = teamRepository.save(new Team("bigTeam"));
+        em.flush();
+        em.createNativeQuery("insert into member (member_id, username, age, team_id, version) " +
+                        "select next value for member_seq, 'big' || x, 0, ?1, 0 from system_range(1, ?2)")
+                .setParameter(1, bigTeam.getId())
+                .setParameter(2, BIG_TEAM_SIZE)
+                .executeUpdate();
+        em.createNativeQuery("update team set member_count = ?1 where team_id = ?2")
+                .setParameter(1, BIG_TEAM_SIZE)
+                .setParameter(2, bigTeam.getId())
+                .executeUpdate();
+        em.clear();
+
+        Member member = memberRepository.findListByUsername("big1").get(0);
+        Team newTeam = teamRepository.save(new Team("newTeam"));
+        statistics.clear();
+
+        // when
+        member.changeTeam(newTeam);
+        em.flush();
+
+        // then - 이전 팀 한 건만 읽고, 10만 명의 members 컬렉션은 초기화하지 않는다.
+        Team oldTeam = em.find(Team.class, bigTeam.getId());
+        assertThat(Hibernate.isInitialized(oldTeam.getMembers())).isFalse();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isLessThanOrEqualTo(1);
+        assertThat(oldTeam.getMemberCount()).isEqualTo(BIG_TEAM_SIZE - 1);
+        assertThat(newTeam.getMemberCount()).isEqualTo(1);
+    }
+
+    private void assertMemberCountMatchesRows(Team team, long expected) {
+        long rows = em.createQuery("select count(m) from Member m where m.team.id = :teamId", Long.class)
+                .setParameter("teamId", team.getId())
+                .getSingleResult();
+        assertThat(rows).isEqualTo(expected);
+        assertThat(teamRepository.findById(team.getId()).orElseThrow().getMemberCount()).isEqualTo(rows);
+    }
+}
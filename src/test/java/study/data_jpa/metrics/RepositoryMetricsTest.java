@@ -0,0 +1,89 @@
+package study.data_jpa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(OutputCaptureExtension.class)
+class RepositoryMetricsTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    public void recordsStatementsAndEntitiesPerMethod() {
+        // given
+        Team teamA = teamRepository.save(new Team("metricsTeamA"));
+        Team teamB = teamRepository.save(new Team("metricsTeamB"));
+        memberRepository.save(new Member("metricsMember1", 10, teamA));
+        memberRepository.save(new Member("metricsMember2", 20, teamB));
+        em.flush();
+        em.clear();
+
+        double statementsBefore = total("repository.sql.statements", "findMemberFetchJoin");
+        double entitiesBefore = total("repository.entities.loaded", "findMemberFetchJoin");
+
+        // when
+        List<Member> members = memberRepository.findMemberFetchJoin();
+
+        // then - fetch join 이므로 SQL 1번에 회원과 팀을 모두 읽는다.
+        assertThat(total("repository.sql.statements", "findMemberFetchJoin") - statementsBefore).isEqualTo(1);
+        assertThat(total("repository.entities.loaded", "findMemberFetchJoin") - entitiesBefore)
+                .isGreaterThanOrEqualTo(members.size() + 2);
+        assertThat(meterRegistry.get("repository.invocations")
+                .tags("repository", "MemberRepository", "method", "findMemberFetchJoin")
+                .timer().count()).isPositive();
+    }
+
+    @Test
+    public void warnsWhenStatementsExceedThreshold(CapturedOutput output) {
+        // given
+        memberRepository.save(new Member("metricsPaging1", 777));
+        memberRepository.save(new Member("metricsPaging2", 777));
+        em.flush();
+
+        // 설정을 바꾸면 스프링 컨텍스트가 새로 떠서 DB 스키마를 다시 만들므로, 기준값이 1 인 인터셉터를 한 겹 더 씌워 확인한다.
+        ProxyFactory proxyFactory = new ProxyFactory(memberRepository);
+        proxyFactory.addAdvice(new RepositoryMetricsInterceptor(SimpleMeterRegistry::new, "MemberRepository", 1));
+        MemberRepository strictRepository = (MemberRepository) proxyFactory.getProxy();
+
+        // when - 페이지가 꽉 차므로 content 쿼리 + count 쿼리
+        strictRepository.findByAge(777, PageRequest.of(0, 1));
+
+        // then
+        assertThat(output).contains("MemberRepository.findByAge executed 2 SQL statements");
+    }
+
+    private double total(String name, String method) {
+        DistributionSummary summary = meterRegistry.find(name)
+                .tags("repository", "MemberRepository", "method", method)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
@@ -1,5 +1,8 @@
 package study.data_jpa.repository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Member;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -20,6 +24,25 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    @Rollback
+    public void saveAllBatched() {
+        // given
+        long before = memberJpaRepository.count();
+
+        // when
+        long saved = memberJpaRepository.saveAllBatched(
+                IntStream.rangeClosed(1, 1000).mapToObj(i -> new Member("batch" + i, i % 50)), 100);
+
+        // then - 전부 저장되고, 영속성 컨텍스트에는 아무것도 남아있지 않아야 한다.
+        assertThat(saved).isEqualTo(1000);
+        assertThat(memberJpaRepository.count()).isEqualTo(before + 1000);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
     @Test
     public void paging() throws Exception {
         // given
@@ -3,21 +3,30 @@ package study.data_jpa.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
 import study.data_jpa.entity.Team;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +43,15 @@ class MemberRepositoryTest {
     @PersistenceContext
     private EntityManager em;
 
+    Statistics statistics;
+
+    // hibernate.generate_statistics 가 켜져 있으므로 SQL 수를 셀 테스트는 준비가 끝난 뒤 statistics.clear() 만 한다.
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
     @Test
     public void callCustom() {
         List<Member> result = memberRepository.findMemberCustom();
@@ -120,6 +138,31 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue(); //다음 페이지가 있는가?
     }
 
+    @Test
+    public void keysetScroll() {
+        // given
+        Member first = memberRepository.save(new Member("scroll1", 10));
+        memberRepository.save(new Member("scroll2", 10));
+        memberRepository.save(new Member("scroll3", 10));
+        memberRepository.save(new Member("scroll4", 10));
+        memberRepository.save(new Member("scroll5", 10));
+
+        // when - 2개씩 끝까지 넘겨본다.
+        List<String> usernames = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.forward(Map.of("id", first.getId() - 1));
+        Window<Member> window;
+        do {
+            window = memberRepository.findAllByOrderByIdAsc(position, Limit.of(2));
+            window.forEach(member -> usernames.add(member.getUsername()));
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+
+        // then
+        assertThat(usernames).containsExactly("scroll1", "scroll2", "scroll3", "scroll4", "scroll5");
+    }
+
     @Test
     public void findByNames() {
         Member m1 = Member.builder()
@@ -138,6 +181,92 @@ class MemberRepositoryTest {
         System.out.println("byNames: " + byNames);
 
     }
+    @Test
+    public void findByNamesInChunks() {
+        // given - in 절 한 번에 다 들어가지 않는 1,200 명
+        List<String> names = IntStream.range(0, 1200).mapToObj(i -> "chunk" + i).toList();
+        names.forEach(name -> memberRepository.save(new Member(name, 10)));
+        em.flush();
+        em.clear();
+
+        List<String> query = new ArrayList<>(names);
+        query.addAll(names.subList(0, 100)); // 중복된 이름
+        query.add("nobody");                 // 없는 이름
+
+        statistics.clear();
+        // when
+        List<Member> members = memberRepository.findByNames(query);
+
+        // then - 512 개씩 3번 나눠서 조회하고, 중복 없이 전부 찾아온다.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(members).extracting(Member::getUsername).containsExactlyInAnyOrderElementsOf(names);
+    }
+
+    @Test
+    public void batchFetchTeamsOfMemberList() {
+        // given - 팀 10개에 2명씩
+        List<String> names = saveMembersInTeams("batch", 10);
+
+        statistics.clear();
+        // when - 팀 없이 조회한 뒤 팀 이름을 읽는다.
+        List<Member> members = memberRepository.findByNames(names);
+        members.forEach(member -> member.getTeam().getName());
+
+        // then - 회원 조회 1번 + 팀 10개를 in 절로 1번 (N+1 이면 11번)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void preloadTeams() {
+        // given
+        List<String> names = saveMembersInTeams("preload", 10);
+
+        statistics.clear();
+        // when
+        List<Member> members = memberRepository.preloadTeams(memberRepository.findByNames(names));
+        long afterPreload = statistics.getPrepareStatementCount();
+        members.forEach(member -> member.getTeam().getName());
+
+        // then - 회원 조회 1번 + 팀 in 조회 1번, 이후 팀을 읽을 때는 쿼리가 나가지 않는다.
+        assertThat(afterPreload).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(members).extracting(member -> member.getTeam().getName()).doesNotContainNull();
+    }
+
+    @Test
+    public void batchFetchMembersOfTeamList() {
+        // given
+        saveMembersInTeams("teamBatch", 10);
+        List<Long> teamIds = em.createQuery("select t.id from Team t where t.name like 'teamBatch%'", Long.class)
+                .getResultList();
+
+        statistics.clear();
+        // when
+        List<Team> teams = teamRepository.findAllById(teamIds);
+        int total = teams.stream().mapToInt(team -> team.getMembers().size()).sum();
+
+        // then - 팀 조회 1번 + 10개 팀의 members 를 in 절로 1번
+        assertThat(total).isEqualTo(20);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // prefix 팀 teamCount 개에 회원을 2명씩 저장하고, 영속성 컨텍스트와 2차 캐시를 비운다.
+    private List<String> saveMembersInTeams(String prefix, int teamCount) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < teamCount; i++) {
+            Team team = teamRepository.save(new Team(prefix + "Team" + i));
+            for (int j = 0; j < 2; j++) {
+                String name = prefix + i + "_" + j;
+                memberRepository.save(new Member(name, 10, team));
+                names.add(name);
+            }
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        return names;
+    }
+
     @Test
     public void findMemberDto() {
         Team team = new Team("teamA");
@@ -165,6 +294,78 @@ class MemberRepositoryTest {
         assertThat(dto.getTeamName()).isEqualTo("teamA"); // teamName이 "teamA"인지 확인
     }
 
+    @Test
+    public void findMemberDtoPage() {
+        // given - 팀이 없는 회원도 섞어둔다.
+        Team team = new Team("teamA");
+        teamRepository.save(team);
+        memberRepository.save(new Member("dto1", 10, team));
+        memberRepository.save(new Member("dto2", 10, team));
+        memberRepository.save(new Member("dto3", 10, team));
+        memberRepository.save(new Member("dto4", 10, team));
+        memberRepository.save(new Member("dto5", 10));
+        em.flush();
+        em.clear();
+
+        statistics.clear();
+        // when
+        Page<MemberDto> page = memberRepository.findMemberDto(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "id")));
+
+        // then - content 쿼리 1번 + count 쿼리 1번, 엔티티는 하나도 로딩하지 않는다.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(page.getContent()).extracting(MemberDto::getUsername).containsExactly("dto5", "dto4", "dto3");
+        assertThat(page.getContent()).extracting(MemberDto::getTeamName).containsExactly(null, "teamA", "teamA");
+    }
+
+    @Test
+    public void bulkAgePlus() {
+        // given - 다른 데이터가 쓰지 않는 나이대를 써서 bulk update 가 이 네 명만 보게 한다.
+        int base = 1_000_000;
+        Member member1 = memberRepository.save(new Member("bulk1", base + 10));
+        Member member2 = memberRepository.save(new Member("bulk2", base + 19));
+        Member member3 = memberRepository.save(new Member("bulk3", base + 20));
+        Member member4 = memberRepository.save(new Member("bulk4", base + 40));
+
+        // when
+        int resultCount = memberRepository.bulkAgePlus(base + 20);
+
+        // then - 영속성 컨텍스트가 비워졌으므로 다시 조회하면 DB 의 값이 나온다.
+        assertThat(resultCount).isEqualTo(2);
+        assertThat(em.contains(member4)).isFalse();
+        assertThat(memberRepository.findById(member1.getId()).get().getAge()).isEqualTo(base + 10);
+        assertThat(memberRepository.findById(member2.getId()).get().getAge()).isEqualTo(base + 19);
+        assertThat(memberRepository.findById(member3.getId()).get().getAge()).isEqualTo(base + 21);
+        assertThat(memberRepository.findById(member4.getId()).get().getAge()).isEqualTo(base + 41);
+    }
+
+    @Test
+    public void moveMembersAndDeleteByTeam() {
+        // given
+        Team teamA = teamRepository.save(new Team("bulkTeamA"));
+        Team teamB = teamRepository.save(new Team("bulkTeamB"));
+        memberRepository.save(new Member("bulk1", 10, teamA));
+        memberRepository.save(new Member("bulk2", 20, teamA));
+        memberRepository.save(new Member("bulk3", 30, teamB));
+
+        // when
+        int moved = memberRepository.moveMembers(teamA, teamB);
+
+        // then
+        assertThat(moved).isEqualTo(2);
+        assertThat(teamRepository.findById(teamA.getId()).get().getMembers()).isEmpty();
+        assertThat(teamRepository.findById(teamB.getId()).get().getMembers())
+                .extracting(Member::getUsername).containsExactlyInAnyOrder("bulk1", "bulk2", "bulk3");
+
+        // when
+        int deleted = memberRepository.deleteByTeam(teamB);
+
+        // then
+        assertThat(deleted).isEqualTo(3);
+        assertThat(memberRepository.findListByUsername("bulk1")).isEmpty();
+        assertThat(teamRepository.findById(teamB.getId()).get().getMembers()).isEmpty();
+    }
+
     @Test
     public void findUsernameList() {
         Member member1 = new Member("MemberA", 10);
@@ -0,0 +1,70 @@
+package study.data_jpa.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class NamedQueryTest {
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamJpaRepository teamJpaRepository;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void namedQueriesAreRegisteredAtStartup() {
+        // 등록되지 않은 이름이면 IllegalArgumentException 이 난다.
+        Stream.of("Member.findAllMembers", "Member.countMembers", "Member.findPageByAge", "Member.totalCountByAge",
+                        "Member.findAllByUsernames", "Member.bulkMoveTeam", "Member.bulkDeleteByTeam",
+                        "Team.findAllTeams", "Team.countTeams", "Team.addMemberCountById")
+                .forEach(name -> assertThat(em.createNamedQuery(name)).isNotNull());
+    }
+
+    @Test
+    public void repeatedCallsHitQueryPlanCache() {
+        // given - 처음 한 번은 SQL 변환 결과를 캐시에 올린다.
+        callRepositories();
+        double misses = queryPlan("miss");
+        double hits = queryPlan("hit");
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            callRepositories();
+        }
+
+        // then
+        assertThat(queryPlan("miss")).isEqualTo(misses);
+        assertThat(queryPlan("hit")).isGreaterThan(hits);
+        assertThat(meterRegistry.get("hibernate.cache.query.plan.hit.ratio").gauge().value()).isBetween(0.0, 1.0);
+    }
+
+    private void callRepositories() {
+        memberJpaRepository.findAll();
+        memberJpaRepository.count();
+        memberJpaRepository.findByPage(10, 0, 3);
+        teamJpaRepository.findAll();
+        teamJpaRepository.count();
+        memberRepository.findMemberCustom();
+    }
+
+    private double queryPlan(String result) {
+        return meterRegistry.get("hibernate.cache.query.plan").tag("result", result).functionCounter().count();
+    }
+}
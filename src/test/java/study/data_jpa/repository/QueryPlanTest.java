@@ -0,0 +1,153 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// username/age 로 찾는 조회 쿼리가 전부 인덱스를 타는지 H2 EXPLAIN 으로 확인한다.
+// 실제로 실행된 SQL 을 SqlCaptor 로 잡아서 그대로 EXPLAIN 하므로, 쿼리나 인덱스가 바뀌면 여기서 깨진다.
+// member 테이블을 tableScan 하거나, 인덱스를 타더라도 선두 컬럼 조건 없이 인덱스 전체를 훑으면 실패로 본다.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.data_jpa.repository.SqlCaptor")
+@Transactional
+class QueryPlanTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    // FROM "PUBLIC"."MEMBER" "M1_0" /* PUBLIC.IDX_MEMBER_AGE_USERNAME: AGE = ?1 */
+    private static final Pattern MEMBER_ACCESS =
+            Pattern.compile("\"MEMBER\" \"[^\"]+\"\\s*/\\* PUBLIC\\.([\\w.]+?)(?::\\s*(.*?))?\\s*\\*/", Pattern.DOTALL);
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        Team team = teamRepository.save(new Team("planTeam"));
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("plan" + i, i % 3, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void findByUsernameAndAge() {
+        assertNoFullTableScan(() -> memberRepository.findByUsernameAndAge("plan1", 1));
+    }
+
+    @Test
+    public void findUser() {
+        assertNoFullTableScan(() -> memberRepository.findUser("plan1", 1));
+    }
+
+    @Test
+    public void findMembers() {
+        assertNoFullTableScan(() -> memberRepository.findMembers("plan1"));
+    }
+
+    @Test
+    public void findListByUsername() {
+        assertNoFullTableScan(() -> memberRepository.findListByUsername("plan1"));
+    }
+
+    @Test
+    public void findMemberByUsername() {
+        assertNoFullTableScan(() -> memberRepository.findMemberByUsername("plan1"));
+        assertNoFullTableScan(() -> memberRepository.findOptionalByUsername("plan2"));
+    }
+
+    @Test
+    public void findByUsernameWithEntityGraph() {
+        assertNoFullTableScan(() -> memberRepository.findByUsername("plan1"));
+        assertNoFullTableScan(() -> memberRepository.findEntityGraphByUsername("plan1"));
+    }
+
+    @Test
+    public void findByNames() {
+        assertNoFullTableScan(() -> memberRepository.findByNames(List.of("plan1", "plan2", "plan3")));
+    }
+
+    @Test
+    public void findByAge() {
+        // content + count 쿼리 모두 확인하도록 페이지를 꽉 채운다.
+        assertNoFullTableScan(() -> memberRepository.findByAge(1, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username"))));
+    }
+
+    @Test
+    public void findByPage() {
+        assertNoFullTableScan(() -> memberJpaRepository.findByPage(1, 0, 2));
+        assertNoFullTableScan(() -> memberJpaRepository.totalCount(1));
+    }
+
+    private void assertNoFullTableScan(Runnable query) {
+        SqlCaptor.clear();
+        query.run();
+        List<String> selects = SqlCaptor.selects();
+
+        assertThat(selects).isNotEmpty();
+        for (String sql : selects) {
+            String plan = explain(sql);
+            Matcher matcher = MEMBER_ACCESS.matcher(plan);
+            assertThat(matcher.find()).as(plan).isTrue();
+
+            String index = matcher.group(1);
+            String condition = matcher.group(2);
+            assertThat(index).as(plan).doesNotEndWith("tableScan");
+            assertThat(condition).as(plan).isNotNull();
+            assertThat(condition).as(plan).contains(leadingColumn(index));
+        }
+    }
+
+    private String leadingColumn(String index) {
+        return (String) em.createNativeQuery("select column_name from information_schema.index_columns " +
+                        "where index_name = :index and ordinal_position = 1")
+                .setParameter("index", index)
+                .getSingleResult();
+    }
+
+    private String explain(String sql) {
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData metaData = ps.getParameterMetaData();
+                for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                    ps.setObject(i, sampleValue(metaData.getParameterType(i)));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    private static Object sampleValue(int sqlType) {
+        return switch (sqlType) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR -> "plan1";
+            default -> 1;
+        };
+    }
+}
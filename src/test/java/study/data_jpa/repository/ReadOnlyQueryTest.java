@@ -0,0 +1,128 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.dto.MemberSummary;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 읽기 전용 트랜잭션 / projection 으로 조회할 때 요청 하나당 힙 할당량이 얼마나 줄어드는지 확인한다.
+// 트랜잭션마다 커밋된 데이터를 읽어야 하므로 테스트 전체를 하나의 트랜잭션으로 묶지 않는다.
+@SpringBootTest
+class ReadOnlyQueryTest {
+
+    private static final int MEMBER_COUNT = 2_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager em;
+
+    Team team;
+
+    @BeforeEach
+    void setUp() {
+        team = teamRepository.save(new Team("readOnlyTeam"));
+        memberJpaRepository.saveAllBatched(
+                IntStream.rangeClosed(1, MEMBER_COUNT).mapToObj(i -> new Member("readOnly" + i, i % 50, team)), 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteByTeam(team);
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void readOnlyTransactionSkipsSnapshots() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            List<Member> members = memberRepository.findAll();
+            Session session = em.unwrap(Session.class);
+
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            assertThat(session.isDefaultReadOnly()).isTrue();
+            assertThat(members).allMatch(session::isReadOnly);
+        });
+    }
+
+    @Test
+    public void allocationPerRequest() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // 커밋(flush) 까지 포함해서 잰다. 읽기/쓰기 트랜잭션은 커밋할 때 엔티티마다 스냅샷과 비교한다.
+        Allocation entityReadWrite = measure(() -> readWrite.execute(status -> memberRepository.findMemberFetchJoin()));
+        Allocation entityReadOnly = measure(() -> readOnly.execute(status -> memberRepository.findMemberFetchJoin()));
+        Allocation projection = measure(memberRepository::findMemberSummaries);
+
+        System.out.println("entity (read-write) = " + entityReadWrite);
+        System.out.println("entity (read-only)  = " + entityReadOnly);
+        System.out.println("projection          = " + projection);
+
+        assertThat(entityReadOnly.bytes).isLessThan(entityReadWrite.bytes);
+        assertThat(projection.bytes).isLessThan(entityReadOnly.bytes);
+    }
+
+    @Test
+    public void findMemberSummaries() {
+        List<MemberSummary> summaries = memberRepository.findMemberSummaries();
+
+        assertThat(summaries)
+                .filteredOn(summary -> summary.username().startsWith("readOnly"))
+                .hasSize(MEMBER_COUNT)
+                .allMatch(summary -> summary.teamName().equals("readOnlyTeam"));
+    }
+
+    // 워밍업 후 여러 번 실행해서 가장 적게 할당한 값을 쓴다. (JIT, GC 타이밍에 따른 흔들림을 줄인다)
+    private Allocation measure(Supplier<?> request) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ROUNDS; i++) {
+            request.get();
+        }
+        long minBytes = Long.MAX_VALUE;
+        long minCpuNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long cpu = threads.getCurrentThreadCpuTime();
+            request.get();
+            minBytes = Math.min(minBytes, threads.getCurrentThreadAllocatedBytes() - bytes);
+            minCpuNanos = Math.min(minCpuNanos, threads.getCurrentThreadCpuTime() - cpu);
+        }
+        return new Allocation(minBytes, minCpuNanos);
+    }
+
+    record Allocation(long bytes, long cpuNanos) {
+        @Override
+        public String toString() {
+            return "%,d KB, %,d us cpu".formatted(bytes / 1024, cpuNanos / 1000);
+        }
+    }
+}
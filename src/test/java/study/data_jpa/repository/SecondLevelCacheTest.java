@@ -0,0 +1,110 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 2차 캐시/쿼리 캐시는 커밋된 데이터만 캐시하므로 테스트 전체를 하나의 트랜잭션으로 묶지 않는다.
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+    Team team;
+    Member member;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        team = teamRepository.save(new Team("cacheTeam"));
+        member = memberRepository.save(new Member("cacheMember", 30, team));
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteById(member.getId());
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void repeatLookupHitsNoSql() {
+        // given - 처음 한 번은 DB 에서 읽어서 캐시에 올린다.
+        memberRepository.findMemberByUsername("cacheMember");
+        memberRepository.findOptionalByUsername("cacheMember");
+        teamRepository.findById(team.getId());
+
+        // when
+        statistics.clear();
+        Member findMember = memberRepository.findMemberByUsername("cacheMember");
+        Member optionalMember = memberRepository.findOptionalByUsername("cacheMember").orElseThrow();
+        Team findTeam = teamRepository.findById(team.getId()).orElseThrow();
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(findMember.getId()).isEqualTo(member.getId());
+        assertThat(optionalMember.getId()).isEqualTo(member.getId());
+        assertThat(findTeam.getName()).isEqualTo("cacheTeam");
+    }
+
+    @Test
+    public void teamMembersCollectionIsCached() {
+        // given
+        transactionTemplate.executeWithoutResult(status ->
+                teamRepository.findById(team.getId()).orElseThrow().getMembers().size());
+
+        // when
+        statistics.clear();
+        int size = transactionTemplate.execute(status ->
+                teamRepository.findById(team.getId()).orElseThrow().getMembers().size());
+
+        // then
+        assertThat(size).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void memberWriteEvictsOnlyItsOwnTeam() {
+        // given - 두 팀을 캐시에 올려 둔다.
+        Team other = teamRepository.save(new Team("cacheOtherTeam"));
+        teamRepository.findById(team.getId());
+        teamRepository.findById(other.getId());
+        Cache cache = emf.getCache();
+        assertThat(cache.contains(Team.class, team.getId())).isTrue();
+        assertThat(cache.contains(Team.class, other.getId())).isTrue();
+
+        // when - team 에 회원이 가입하면 (memberCount + 1)
+        Member joined = memberRepository.save(new Member("cacheJoined", 30, team));
+
+        // then - 가입한 팀만 캐시에서 빠지고, 다시 읽으면 바뀐 memberCount 가 보인다.
+        try {
+            assertThat(cache.contains(Team.class, other.getId())).isTrue();
+            assertThat(cache.contains(Team.class, team.getId())).isFalse();
+            assertThat(teamRepository.findById(team.getId()).orElseThrow().getMemberCount()).isEqualTo(2);
+        } finally {
+            memberRepository.deleteById(joined.getId());
+            teamRepository.deleteById(other.getId());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package study.data_jpa.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hibernate 가 실행하는 SQL 을 모아두는 StatementInspector (테스트용)
+// spring.jpa.properties.hibernate.session_factory.statement_inspector 로 등록한다.
+public class SqlCaptor implements StatementInspector {
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (statements) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static void clear() {
+        synchronized (statements) {
+            statements.clear();
+        }
+    }
+
+    public static List<String> selects() {
+        synchronized (statements) {
+            return statements.stream()
+                    .filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package study.data_jpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberLookupCacheTest {
+
+    @Test
+    public void concurrentMissesLoadOnce() throws Exception {
+        MemberLookupCache cache = new MemberLookupCache(Duration.ofMinutes(1), Duration.ofMinutes(1), 1_000_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // 같은 username 을 100 개 스레드가 동시에 찾는다.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<?>[] futures = IntStream.range(0, 100)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        await(start);
+                        return cache.get("hot", username -> {
+                            loads.incrementAndGet();
+                            sleep(100); // DB 조회
+                            return Optional.of(1L);
+                        });
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            start.countDown();
+            CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+            assertThat(futures).allSatisfy(future -> assertThat(future.join()).isEqualTo(Optional.of(1L)));
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void negativeEntryExpiresSooner() {
+        MemberLookupCache cache = new MemberLookupCache(Duration.ofMinutes(1), Duration.ofMillis(50), 1_000_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("present", username -> { loads.incrementAndGet(); return Optional.of(1L); });
+        cache.get("absent", username -> { loads.incrementAndGet(); return Optional.empty(); });
+        cache.get("absent", username -> { loads.incrementAndGet(); return Optional.empty(); });
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getNegativeHitCount()).isEqualTo(1);
+
+        sleep(100);
+        cache.get("present", username -> { loads.incrementAndGet(); return Optional.of(1L); });
+        cache.get("absent", username -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        // 없는 username 만 다시 읽는다.
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void invalidationsInOneTransactionShareOneSynchronization() {
+        MemberLookupCache cache = new MemberLookupCache(Duration.ofMinutes(1), Duration.ofMinutes(1), 1_000_000, 100);
+        IntStream.range(0, 20).forEach(i -> cache.get("user" + i, username -> Optional.of((long) i)));
+
+        commit(() -> IntStream.range(0, 10).forEach(i -> cache.invalidateAfterCommit("user" + i)), () -> {
+            // 커밋 전에는 그대로 있고, 동기화는 하나만 등록된다.
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+            assertThat(cache.getNativeCache().estimatedSize()).isEqualTo(20);
+        });
+
+        assertThat(cache.getNativeCache().asMap().keySet())
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(10, 20).mapToObj(i -> "user" + i).toList());
+    }
+
+    @Test
+    public void manyInvalidationsFallBackToInvalidateAll() {
+        MemberLookupCache cache = new MemberLookupCache(Duration.ofMinutes(1), Duration.ofMinutes(1), 1_000_000, 100);
+        cache.get("untouched", username -> Optional.of(0L));
+
+        commit(() -> IntStream.range(0, 100_000).forEach(i -> cache.invalidateAfterCommit("bulk" + i)), () -> {
+        });
+
+        assertThat(cache.getNativeCache().estimatedSize()).isZero();
+    }
+
+    // 트랜잭션 동기화를 열고 work 를 실행한 뒤 커밋 콜백을 부른다.
+    private static void commit(Runnable work, Runnable beforeCommit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            beforeCommit.run();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package study.data_jpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+import study.data_jpa.dto.MemberDashboardDto;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// 비동기 조회는 다른 스레드에서 자기 트랜잭션으로 실행되므로 데이터를 커밋해 두고 테스트한다.
+@SpringBootTest
+class MemberDashboardServiceTest {
+
+    @Autowired
+    MemberDashboardService memberDashboardService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ApplicationContext context;
+    @Autowired
+    JdbcAdmissionLimiter jdbcAdmissionLimiter;
+
+    Team team;
+    int age;
+
+    @BeforeEach
+    void setUp() {
+        age = ThreadLocalRandom.current().nextInt(100_000, 1_000_000);
+        team = teamRepository.save(new Team("dashboardTeam"));
+        memberRepository.save(new Member("dashboard1", age, team));
+        memberRepository.save(new Member("dashboard2", age, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.findByAgeAsync(age).join().forEach(member -> memberRepository.deleteById(member.getId()));
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void dashboard() throws Exception {
+        MemberDashboardDto dashboard = memberDashboardService.dashboard(team.getId(), age).get(5, TimeUnit.SECONDS);
+
+        assertThat(dashboard.getTeamName()).isEqualTo("dashboardTeam");
+        assertThat(dashboard.getMembersOfAge()).extracting(MemberDto::getUsername, MemberDto::getTeamName)
+                .containsExactlyInAnyOrder(
+                        tuple("dashboard1", "dashboardTeam"),
+                        tuple("dashboard2", null));
+    }
+
+    @Test
+    public void asyncFinderRunsInItsOwnTransaction() {
+        // 호출한 쪽 트랜잭션에서 아직 커밋하지 않은 회원은 비동기 조회 결과에 없다.
+        List<Member> members = new TransactionTemplate(transactionManager).execute(status -> {
+            memberRepository.saveAndFlush(new Member("dashboardUncommitted", age, null));
+            List<Member> result = memberRepository.findByAgeAsync(age).join();
+            status.setRollbackOnly();
+            return result;
+        });
+
+        assertThat(members).extracting(Member::getUsername).containsExactlyInAnyOrder("dashboard1", "dashboard2");
+    }
+
+    @Test
+    public void asyncFinderWaitsForAdmissionPermit() throws Exception {
+        // given - 다른 요청들이 허가를 모두 쥐고 있다.
+        List<JdbcAdmissionLimiter.Permit> held = new ArrayList<>();
+        CompletableFuture<Optional<Team>> team;
+        try {
+            while (jdbcAdmissionLimiter.availablePermits() > 0) {
+                jdbcAdmissionLimiter.tryAcquireExtra().ifPresent(held::add);
+            }
+
+            // when
+            team = teamRepository.findByIdAsync(this.team.getId());
+
+            // then - 허가가 날 때까지 커넥션을 빌리지 않고 기다린다.
+            Thread.sleep(200);
+            assertThat(team).isNotDone();
+        } finally {
+            held.forEach(JdbcAdmissionLimiter.Permit::close);
+        }
+        assertThat(team.get(5, TimeUnit.SECONDS)).map(Team::getName).hasValue("dashboardTeam");
+    }
+
+    @Test
+    public void applicationTaskExecutorIsStillAvailable() {
+        // repositoryExecutor 를 따로 등록해도 MVC 비동기 응답(StreamingResponseBody)용 실행기는 그대로 있어야 한다.
+        assertThat(context.containsBean("applicationTaskExecutor")).isTrue();
+    }
+
+    @Test
+    public void lookupsRunConcurrently() throws Exception {
+        // given - 각각 300ms 걸리는 조회
+        MemberRepository slowMembers = mock(MemberRepository.class);
+        TeamRepository slowTeams = mock(TeamRepository.class);
+        Team slowTeam = new Team("slowTeam");
+        when(slowTeams.findByIdAsync(1L)).thenReturn(delayed(Optional.of(slowTeam)));
+        when(slowMembers.findByAgeAsync(20)).thenReturn(delayed(List.of(new Member("slow", 20, slowTeam))));
+        MemberDashboardService service = new MemberDashboardService(slowMembers, slowTeams);
+
+        // when
+        long start = System.nanoTime();
+        MemberDashboardDto dashboard = service.dashboard(1L, 20).get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then - 순서대로 실행했다면 600ms 이상 걸린다.
+        assertThat(dashboard.getMembersOfAge()).hasSize(1);
+        assertThat(elapsedMillis).isLessThan(550);
+    }
+
+    private static <T> CompletableFuture<T> delayed(T value) {
+        return CompletableFuture.supplyAsync(() -> value, CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS));
+    }
+}
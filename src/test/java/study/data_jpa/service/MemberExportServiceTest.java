@@ -0,0 +1,111 @@
+package study.data_jpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    MemberExportService memberExportService;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void exportNdjson() throws Exception {
+        // given
+        Team team = teamRepository.save(new Team("exportTeam"));
+        memberJpaRepository.saveAllBatched(
+                IntStream.rangeClosed(1, 2000).mapToObj(i -> new Member("export" + i, 20, i % 2 == 0 ? team : null)), 500);
+        long total = memberJpaRepository.count();
+
+        // when - 쓰는 도중에 영속성 컨텍스트에 올라간 엔티티 수를 계속 기록한다.
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        MaxEntityCountOutputStream out = new MaxEntityCountOutputStream(buffer, em.unwrap(Session.class));
+        long exported = memberExportService.exportNdjson(out);
+
+        // then - 한 줄에 회원 하나, 내보내는 동안 엔티티는 하나도 쌓이지 않는다.
+        List<String> lines = buffer.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(exported).isEqualTo(total);
+        assertThat(lines).hasSize((int) total);
+        assertThat(out.maxEntityCount).isZero();
+
+        MemberDto last = objectMapper.readValue(lines.get(lines.size() - 1), MemberDto.class);
+        assertThat(last.getUsername()).isEqualTo("export2000");
+        assertThat(last.getTeamName()).isEqualTo("exportTeam");
+    }
+
+    @Test
+    public void exportNdjsonMatchesJpqlExport() throws Exception {
+        // given - 팀이 없는 회원(teamName null)과 JSON 이스케이프가 필요한 이름도 섞는다.
+        Team team = teamRepository.save(new Team("export \"quoted\" 팀"));
+        memberJpaRepository.saveAllBatched(
+                IntStream.rangeClosed(1, 300).mapToObj(i -> new Member("export\t" + i, 20, i % 3 == 0 ? null : team)), 100);
+
+        // when
+        ByteArrayOutputStream jdbc = new ByteArrayOutputStream();
+        ByteArrayOutputStream jpql = new ByteArrayOutputStream();
+        long jdbcCount = memberExportService.exportNdjson(jdbc);
+        long jpqlCount = memberExportService.exportNdjsonByJpql(jpql);
+
+        // then - MemberDto 를 Jackson 으로 직렬화한 것과 바이트 단위로 같다.
+        assertThat(jdbcCount).isEqualTo(jpqlCount);
+        assertThat(jdbc.toString(StandardCharsets.UTF_8)).isEqualTo(jpql.toString(StandardCharsets.UTF_8));
+    }
+
+    static class MaxEntityCountOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+        private final Session session;
+        int maxEntityCount;
+
+        MaxEntityCountOutputStream(OutputStream delegate, Session session) {
+            this.delegate = delegate;
+            this.session = session;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            record();
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            record();
+            delegate.write(b, off, len);
+        }
+
+        private void record() {
+            maxEntityCount = Math.max(maxEntityCount, session.getStatistics().getEntityCount());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package study.data_jpa.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.dto.MemberCreateCommand;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// app.ingest.enabled 는 기본값(false) 그대로 두고, 테스트마다 설정을 바꿔서 직접 만든다.
+@SpringBootTest
+class MemberIngestServiceTest {
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        teamRepository.findAll().stream()
+                .filter(team -> team.getName().startsWith("ingest"))
+                .forEach(team -> {
+                    memberRepository.deleteByTeam(team);
+                    teamRepository.deleteById(team.getId());
+                });
+        transactionTemplate.executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username like 'ingest%'").executeUpdate());
+    }
+
+    @Test
+    public void gracefulShutdownCommitsEveryAcceptedWrite() throws Exception {
+        // given - 배치가 잘 차지 않도록 크게 잡아서 stop 할 때 큐에 남은 요청이 있게 한다.
+        MemberIngestService ingest = ingestService(1_000, Duration.ofSeconds(10));
+        ingest.start();
+
+        List<CompletableFuture<Long>> futures;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            futures = IntStream.range(0, 2_500)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> ingest.submit(new MemberCreateCommand("ingestStop" + i, 10, null)), executor))
+                    .map(CompletableFuture::join)
+                    .toList();
+        }
+
+        // when
+        ingest.stop();
+
+        // then - 받은 요청은 전부 커밋된 뒤에 멈춘다.
+        assertThat(futures).allSatisfy(future -> assertThat(future).isCompleted().isNotCompletedExceptionally());
+        assertThat(count("ingestStop%")).isEqualTo(2_500);
+        assertThat(ingest.isRunning()).isFalse();
+        assertThatThrownBy(() -> ingest.submit(new MemberCreateCommand("ingestLate", 10, null)))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void writesAreGroupedIntoBatches() throws Exception {
+        MemberIngestService ingest = ingestService(100, Duration.ofMillis(50));
+        ingest.start();
+        try {
+            List<CompletableFuture<Long>> futures = IntStream.range(0, 500)
+                    .mapToObj(i -> ingest.submit(new MemberCreateCommand("ingestBatch" + i, 10, null)))
+                    .toList();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+            // 500 건을 요청마다가 아니라 최대 100 건씩 몇 번의 트랜잭션으로 저장했다.
+            assertThat(registry.get("member.ingest.batch.size").summary().totalAmount()).isEqualTo(500);
+            assertThat(registry.get("member.ingest.batch.size").summary().count()).isLessThanOrEqualTo(10);
+            assertThat(registry.get("member.ingest.ack").timer().count()).isEqualTo(500);
+            assertThat(futures).extracting(CompletableFuture::join).doesNotContainNull().doesNotHaveDuplicates();
+        } finally {
+            ingest.stop();
+        }
+    }
+
+    @Test
+    public void invalidCommandFailsAlone() throws Exception {
+        Team team = teamRepository.save(new Team("ingestTeam"));
+        MemberIngestService ingest = ingestService(100, Duration.ofMillis(200));
+        ingest.start();
+        try {
+            CompletableFuture<Long> ok1 = ingest.submit(new MemberCreateCommand("ingestOk1", 10, team.getId()));
+            CompletableFuture<Long> bad = ingest.submit(new MemberCreateCommand("ingestBad", 10, -1L)); // 없는 팀
+            CompletableFuture<Long> ok2 = ingest.submit(new MemberCreateCommand("ingestOk2", 10, team.getId()));
+            CompletableFuture.allOf(ok1, ok2).get(10, TimeUnit.SECONDS);
+
+            assertThat(bad).isCompletedExceptionally();
+            assertThat(count("ingestOk%")).isEqualTo(2);
+            assertThat(teamRepository.findById(team.getId()).orElseThrow().getMemberCount()).isEqualTo(2);
+        } finally {
+            ingest.stop();
+        }
+    }
+
+    private MemberIngestService ingestService(int batchSize, Duration maxDelay) {
+        return new MemberIngestService(transactionManager, memberJpaRepository, teamRepository,
+                10_000, batchSize, maxDelay, Duration.ofSeconds(1), registry);
+    }
+
+    private long count(String usernamePattern) {
+        return em.createQuery("select count(m) from Member m where m.username like :pattern", Long.class)
+                .setParameter("pattern", usernamePattern)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,118 @@
+package study.data_jpa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.repository.support.MemberLookupCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MemberLookupServiceTest {
+
+    @Autowired
+    MemberLookupService memberLookupService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    MemberLookupCache memberLookupCache;
+
+    Statistics statistics;
+    Team team;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        team = teamRepository.save(new Team("lookupTeam"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteByTeam(team);
+        memberRepository.findOptionalByUsername("lookupNew").ifPresent(memberRepository::delete);
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void repeatedLookupsRunNoSql() {
+        // given - 처음 한 번씩은 DB 에서 찾는다.
+        memberRepository.save(new Member("lookupHot", 10, team));
+        memberLookupService.findByUsername("lookupHot");
+        memberLookupService.findByUsername("lookupNobody");
+
+        // when
+        statistics.clear();
+        for (int i = 0; i < 10; i++) {
+            assertThat(memberLookupService.findByUsername("lookupHot")).map(Member::getUsername).hasValue("lookupHot");
+            assertThat(memberLookupService.findByUsername("lookupNobody")).isEmpty();
+        }
+
+        // then - 있는 이름은 id 캐시 + 2차 캐시, 없는 이름은 negative entry 로 끝난다.
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("member.lookup.cache.negative.hits").functionCounter().count()).isGreaterThanOrEqualTo(10);
+        assertThat(meterRegistry.get("member.lookup.cache.hit.ratio").gauge().value()).isBetween(0.0, 1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "memberLookup").tag("result", "hit").functionCounter().count())
+                .isGreaterThanOrEqualTo(20);
+    }
+
+    @Test
+    public void saveInvalidatesNegativeEntry() {
+        assertThat(memberLookupService.findByUsername("lookupNew")).isEmpty();
+
+        // when - MemberJpaRepository 로 저장해도 커밋 후 비워진다.
+        memberJpaRepository.save(new Member("lookupNew", 10));
+
+        // then
+        assertThat(memberLookupService.findByUsername("lookupNew")).isPresent();
+    }
+
+    @Test
+    public void deleteInvalidatesEntry() {
+        Member member = memberRepository.save(new Member("lookupGone", 10, team));
+        assertThat(memberLookupService.findByUsername("lookupGone")).isPresent();
+
+        // when
+        transactionTemplate.executeWithoutResult(status ->
+                memberJpaRepository.delete(memberJpaRepository.findById(member.getId()).orElseThrow()));
+
+        // then - 캐시에 남은 id 로 찾지 않고 엔트리 자체가 비워졌다.
+        assertThat(memberLookupCache.getNativeCache().getIfPresent("lookupGone")).isNull();
+        assertThat(memberLookupService.findByUsername("lookupGone")).isEmpty();
+    }
+
+    @Test
+    public void bulkDeleteInvalidatesEntries() {
+        memberRepository.save(new Member("lookupBulk", 10, team));
+        assertThat(memberLookupService.findByUsername("lookupBulk")).isPresent();
+
+        // when
+        memberRepository.deleteByTeam(team);
+
+        // then
+        assertThat(memberLookupCache.getNativeCache().getIfPresent("lookupBulk")).isNull();
+        assertThat(memberLookupService.findByUsername("lookupBulk")).isEmpty();
+    }
+}
@@ -0,0 +1,212 @@
+package study.data_jpa.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.concurrency.JdbcAdmissionLimiter;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.repository.support.PageCountCache;
+import study.data_jpa.repository.support.ParallelPageExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// count 를 다른 커넥션에서 세므로 데이터를 커밋해 두고, 테스트 전체를 하나의 트랜잭션으로 묶지 않는다.
+@SpringBootTest
+class MemberPageServiceTest {
+
+    private static final int MEMBER_COUNT = 50;
+    private static final int PERMITS = 4;
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    Team team;
+    int age; // 다른 테스트가 남긴 데이터와 겹치지 않는 나이
+
+    @BeforeEach
+    void setUp() {
+        age = ThreadLocalRandom.current().nextInt(100_000, 1_000_000);
+        team = teamRepository.save(new Team("pageTeam"));
+        memberJpaRepository.saveAllBatched(
+                IntStream.range(0, MEMBER_COUNT).mapToObj(i -> new Member("page" + i, age, team)), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteByTeam(team);
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void countRunsOnAnotherConnectionInParallel() throws InterruptedException {
+        JdbcAdmissionLimiter limiter = limiter(PERMITS);
+        ParallelPageExecutor executor = parallelExecutor(new PageCountCache(Duration.ZERO, 100), limiter);
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        Page<Member> page = executor.execute(PageRequest.of(0, 10, Sort.by("username")),
+                () -> memberRepository.findContentByAge(age, PageRequest.of(0, 10, Sort.by("username"))),
+                PageCountCache.key("Member.age", age),
+                () -> {
+                    countThread.set(Thread.currentThread().getName());
+                    return memberRepository.countByAge(age);
+                });
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(MEMBER_COUNT);
+        assertThat(page.getTotalPages()).isEqualTo(5);
+        assertThat(countThread.get()).startsWith("page-count-");
+        awaitPermits(limiter, PERMITS);
+    }
+
+    @Test
+    public void countRunsInlineWhenNoPermitIsFree() throws InterruptedException {
+        // given - 요청이 허가를 하나 쥐고 있고 남는 허가가 없다.
+        JdbcAdmissionLimiter limiter = limiter(1);
+        ParallelPageExecutor executor = parallelExecutor(new PageCountCache(Duration.ZERO, 100), limiter);
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        // when
+        Page<Member> page;
+        try (JdbcAdmissionLimiter.Permit permit = limiter.acquire()) {
+            page = executor.execute(PageRequest.of(0, 10),
+                    () -> memberRepository.findContentByAge(age, PageRequest.of(0, 10)),
+                    PageCountCache.key("Member.age", age),
+                    () -> {
+                        countThread.set(Thread.currentThread().getName());
+                        return memberRepository.countByAge(age);
+                    });
+        }
+
+        // then - 두 번째 커넥션을 기다리지 않고 요청 스레드에서 센다.
+        assertThat(page.getTotalElements()).isEqualTo(MEMBER_COUNT);
+        assertThat(countThread.get()).isEqualTo(Thread.currentThread().getName());
+        awaitPermits(limiter, 1);
+    }
+
+    @Test
+    public void skipsCountWhenContentIsShorterThanPage() {
+        ParallelPageExecutor executor = new ParallelPageExecutor(new PageCountCache(Duration.ZERO, 100), null, false, limiter(PERMITS));
+        CountingSupplier count = new CountingSupplier(() -> memberRepository.countByAge(age));
+
+        Page<Member> page = executor.execute(PageRequest.of(0, 100),
+                () -> memberRepository.findContentByAge(age, PageRequest.of(0, 100)),
+                PageCountCache.key("Member.age", age), count);
+
+        assertThat(page.getTotalElements()).isEqualTo(MEMBER_COUNT);
+        assertThat(count.calls.get()).isZero();
+    }
+
+    @Test
+    public void reusesCachedCountPerPredicate() {
+        PageCountCache cache = new PageCountCache(Duration.ofMinutes(1), 100);
+        ParallelPageExecutor executor = parallelExecutor(cache);
+        CountingSupplier count = new CountingSupplier(() -> memberRepository.countByAge(age));
+
+        for (int page = 0; page < 3; page++) {
+            PageRequest pageable = PageRequest.of(page, 10);
+            Page<Member> result = executor.execute(pageable, () -> memberRepository.findContentByAge(age, pageable),
+                    PageCountCache.key("Member.age", age), count);
+            assertThat(result.getTotalElements()).isEqualTo(MEMBER_COUNT);
+        }
+
+        assertThat(count.calls.get()).isEqualTo(1);
+        assertThat(cache.getIfPresent(PageCountCache.key("Member.age", age))).isEqualTo(MEMBER_COUNT);
+        assertThat(cache.getIfPresent(PageCountCache.key("Member.age", age + 1))).isNull();
+    }
+
+    @Test
+    public void runsCountInlineInsideTransaction() {
+        ParallelPageExecutor executor = parallelExecutor(new PageCountCache(Duration.ofMinutes(1), 100));
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        // 아직 커밋하지 않은 회원도 count 에 포함되어야 한다.
+        long total = new TransactionTemplate(transactionManager).execute(status -> {
+            memberRepository.saveAndFlush(new Member("pageUncommitted", age, team));
+            return executor.execute(PageRequest.of(0, 10),
+                    () -> memberRepository.findContentByAge(age, PageRequest.of(0, 10)),
+                    PageCountCache.key("Member.age", age),
+                    () -> {
+                        countThread.set(Thread.currentThread().getName());
+                        return memberRepository.countByAge(age);
+                    }).getTotalElements();
+        });
+
+        assertThat(total).isEqualTo(MEMBER_COUNT + 1);
+        assertThat(countThread.get()).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void findByAge() {
+        MemberPageService service = new MemberPageService(memberRepository, parallelExecutor(new PageCountCache(Duration.ZERO, 100)));
+
+        Page<Member> page = service.findByAge(age, PageRequest.of(1, 20, Sort.by("username")));
+
+        assertThat(page.getTotalElements()).isEqualTo(MEMBER_COUNT);
+        assertThat(page.getContent()).extracting(Member::getUsername)
+                .isEqualTo(IntStream.range(0, MEMBER_COUNT).mapToObj(i -> "page" + i).sorted().skip(20).limit(20).toList());
+    }
+
+    private static ParallelPageExecutor parallelExecutor(PageCountCache cache) {
+        return parallelExecutor(cache, limiter(PERMITS));
+    }
+
+    private static ParallelPageExecutor parallelExecutor(PageCountCache cache, JdbcAdmissionLimiter limiter) {
+        SimpleAsyncTaskExecutor countExecutor = new SimpleAsyncTaskExecutor("page-count-");
+        countExecutor.setVirtualThreads(true);
+        return new ParallelPageExecutor(cache, countExecutor, true, limiter);
+    }
+
+    private static JdbcAdmissionLimiter limiter(int permits) {
+        return new JdbcAdmissionLimiter(permits, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    // count 스레드는 결과를 넘긴 다음에 허가를 닫으므로 잠깐 기다린다.
+    private static void awaitPermits(JdbcAdmissionLimiter limiter, int permits) throws InterruptedException {
+        for (int i = 0; i < 100 && limiter.availablePermits() != permits; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(limiter.availablePermits()).isEqualTo(permits);
+    }
+
+    static class CountingSupplier implements LongSupplier {
+
+        private final LongSupplier delegate;
+        final AtomicInteger calls = new AtomicInteger();
+
+        CountingSupplier(LongSupplier delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long getAsLong() {
+            calls.incrementAndGet();
+            return delegate.getAsLong();
+        }
+    }
+}
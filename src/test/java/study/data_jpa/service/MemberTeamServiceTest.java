@@ -0,0 +1,193 @@
+package study.data_jpa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MemberTeamServiceTest {
+
+    private static final int TEAMS = 32;
+    private static final int MEMBERS = 320;
+    private static final int THREADS = 16;
+    private static final int MOVES_PER_THREAD = 50;
+
+    @Autowired
+    MemberTeamService memberTeamService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    EntityManager em;
+
+    List<Long> teamIds;
+    List<Long> memberIds;
+
+    @BeforeEach
+    void setUp() {
+        List<Team> teams = IntStream.range(0, TEAMS).mapToObj(i -> teamRepository.save(new Team("stressTeam" + i))).toList();
+        teamIds = teams.stream().map(Team::getId).toList();
+        memberIds = transactionTemplate.execute(status -> IntStream.range(0, MEMBERS)
+                .mapToObj(i -> memberRepository.save(new Member("stress" + i, 10, teamRepository.getReferenceById(teamIds.get(i % TEAMS)))))
+                .map(Member::getId)
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        teamIds.forEach(teamId -> {
+            Team team = teamRepository.findById(teamId).orElseThrow();
+            memberRepository.deleteByTeam(team);
+            teamRepository.deleteById(teamId);
+        });
+    }
+
+    @Test
+    public void concurrentOptimisticMovesLoseNoUpdates() throws Exception {
+        AtomicInteger moved = new AtomicInteger();
+        AtomicInteger exhausted = new AtomicInteger();
+        double exhaustedBefore = meterRegistry.get("member.change-team.exhausted").counter().count();
+        stress((memberId, teamId) -> {
+            try {
+                memberTeamService.changeTeam(memberId, teamId);
+                moved.incrementAndGet();
+            } catch (OptimisticLockingFailureException e) {
+                exhausted.incrementAndGet(); // 재시도를 다 써도 일관성은 깨지지 않아야 한다.
+            }
+        });
+
+        assertMemberCountsMatchRows();
+        // 충돌은 같은 회원을 동시에 옮길 때(Member 의 @Version)만 나므로 5번 안에 모두 성공한다.
+        assertThat(moved.get()).isEqualTo(THREADS * MOVES_PER_THREAD);
+        assertThat(exhausted.get()).isZero();
+        assertThat(meterRegistry.get("member.change-team.exhausted").counter().count()).isEqualTo(exhaustedBefore);
+    }
+
+    @Test
+    public void concurrentPessimisticMovesLoseNoUpdates() throws Exception {
+        stress(memberTeamService::changeTeamPessimistic);
+
+        assertMemberCountsMatchRows();
+    }
+
+    @Test
+    public void teamReadBeforeMembershipChangeCanStillBeSaved() {
+        // given - 팀을 읽어 둔 사이에
+        Team stale = teamRepository.findById(teamIds.get(1)).orElseThrow();
+
+        // when - 다른 트랜잭션이 그 팀의 회원을 다른 팀으로 옮겨도 (memberCount 만 바뀌고 version 은 그대로)
+        memberTeamService.changeTeam(memberIds.get(1), teamIds.get(2));
+
+        // then - 읽어 둔 Team 을 저장해도 충돌하지 않고, 지난 memberCount 로 덮어쓰지도 않는다.
+        teamRepository.save(stale);
+        assertMemberCountsMatchRows();
+    }
+
+    @Test
+    public void staleTeamIsNotWrittenBack() {
+        // given - 팀을 읽어 둔 사이에
+        Team stale = teamRepository.findById(teamIds.get(1)).orElseThrow();
+
+        // when - 다른 트랜잭션이 같은 팀을 저장하면 (version 이 바뀐다)
+        transactionTemplate.executeWithoutResult(status -> em.createQuery("update versioned Team t set t.name = t.name where t.id = :teamId")
+                .setParameter("teamId", teamIds.get(1))
+                .executeUpdate());
+
+        // then - 읽어 둔 지난 값으로 저장하려는 쪽은 실패한다.
+        assertThatThrownBy(() -> teamRepository.save(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    public void concurrentSignupsIntoSameTeamDoNotConflict() throws Exception {
+        // given - 모든 스레드가 같은 팀으로 가입한다. (팀 이동과 달리 재시도 없이 save 만 한다)
+        Long teamId = teamIds.get(0);
+        AtomicInteger failures = new AtomicInteger();
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            CompletableFuture<?>[] futures = IntStream.range(0, THREADS)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        for (int j = 0; j < MOVES_PER_THREAD; j++) {
+                            String username = "signup" + i + "_" + j;
+                            try {
+                                transactionTemplate.executeWithoutResult(status ->
+                                        memberRepository.save(new Member(username, 10, teamRepository.getReferenceById(teamId))));
+                            } catch (OptimisticLockingFailureException e) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).get(60, TimeUnit.SECONDS);
+        }
+
+        // then - memberCount 는 DB 에서 더하므로 Team 의 @Version 충돌이 나지 않고, 잃어버린 가입도 없다.
+        assertThat(failures.get()).isZero();
+        assertMemberCountsMatchRows(MEMBERS + THREADS * MOVES_PER_THREAD);
+    }
+
+    // THREADS 개 스레드가 무작위 회원을 무작위 팀으로 옮긴다.
+    private void stress(BiConsumer<Long, Long> move) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            CompletableFuture<?>[] futures = IntStream.range(0, THREADS)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int j = 0; j < MOVES_PER_THREAD; j++) {
+                            move.accept(memberIds.get(random.nextInt(MEMBERS)), teamIds.get(random.nextInt(TEAMS)));
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    // 잃어버린 갱신이 없으면 팀마다 memberCount 가 실제 회원 수와 같고, 합은 전체 회원 수다.
+    private void assertMemberCountsMatchRows() {
+        assertMemberCountsMatchRows(MEMBERS);
+    }
+
+    private void assertMemberCountsMatchRows(long members) {
+        long total = 0;
+        for (Long teamId : teamIds) {
+            long rows = em.createQuery("select count(m) from Member m where m.team.id = :teamId", Long.class)
+                    .setParameter("teamId", teamId)
+                    .getSingleResult();
+            long memberCount = em.createQuery("select t.memberCount from Team t where t.id = :teamId", Long.class)
+                    .setParameter("teamId", teamId)
+                    .getSingleResult();
+            assertThat(memberCount).as("team %d", teamId).isEqualTo(rows);
+            total += rows;
+        }
+        assertThat(total).isEqualTo(members);
+    }
+}
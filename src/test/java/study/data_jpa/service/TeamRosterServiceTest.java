@@ -0,0 +1,122 @@
+package study.data_jpa.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.dto.RosterMember;
+import study.data_jpa.dto.TeamRosterDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.SqlCaptor;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 팀 페이지 크기나 팀별 회원 수와 상관없이 SQL 수가 같고, 컬렉션 fetch join 으로 메모리 페이징하지 않는지 확인한다.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.data_jpa.repository.SqlCaptor")
+@ExtendWith(OutputCaptureExtension.class)
+@Transactional
+class TeamRosterServiceTest {
+
+    @Autowired
+    TeamRosterService teamRosterService;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    List<Team> teams = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 다른 테스트가 남긴 팀이 페이지에 섞이지 않도록 비우고 시작한다. (테스트가 끝나면 롤백)
+        em.createQuery("delete from Member").executeUpdate();
+        em.createQuery("delete from Team").executeUpdate();
+        for (int t = 0; t < 6; t++) {
+            Team team = teamRepository.save(new Team("roster" + t));
+            teams.add(team);
+            for (int i = 0; i < t * 3; i++) {
+                memberRepository.save(new Member("roster" + t + "_" + i, 20, team));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void rostersAreLimitedPerTeamAndOrderedById() {
+        Page<TeamRosterDto> page = teamRosterService.findRosters(page(1, 3), 4);
+
+        assertThat(page.getContent()).extracting(TeamRosterDto::name).containsExactly("roster3", "roster4", "roster5");
+        for (TeamRosterDto roster : page.getContent()) {
+            int t = Integer.parseInt(roster.name().substring("roster".length()));
+            assertThat(roster.memberCount()).isEqualTo(t * 3);
+            assertThat(roster.members()).extracting(RosterMember::username)
+                    .containsExactlyElementsOf(IntStream.range(0, Math.min(t * 3, 4)).mapToObj(i -> "roster" + t + "_" + i).toList());
+            assertThat(roster.members()).extracting(RosterMember::id).isSorted();
+        }
+    }
+
+    @Test
+    public void teamWithoutMembersGetsEmptyRoster() {
+        Page<TeamRosterDto> page = teamRosterService.findRosters(page(0, 6), 10);
+
+        assertThat(page.getContent().get(0).name()).isEqualTo("roster0");
+        assertThat(page.getContent().get(0).members()).isEmpty();
+    }
+
+    @Test
+    public void statementCountDoesNotGrowWithPageOrRosterSize(CapturedOutput output) {
+        assertThat(selectsFor(page(2, 2), 1)).isEqualTo(selectsFor(page(0, 6), 100)).isEqualTo(3);
+        assertThat(output).doesNotContain("HHH90003004");
+    }
+
+    @Test
+    public void doesNotInitializeMembersCollection() {
+        teamRosterService.findRosters(page(0, 6), 10);
+
+        Team team = em.find(Team.class, teams.get(5).getId());
+        assertThat(Hibernate.isInitialized(team.getMembers())).isFalse();
+    }
+
+    @Test
+    public void collectionFetchJoinWithPagingFailsInsteadOfPagingInMemory() {
+        // hibernate.query.fail_on_pagination_over_collection_fetch - 경고(HHH90003004) 대신 예외
+        assertThatThrownBy(() -> em.createQuery("select t from Team t join fetch t.members", Team.class)
+                .setMaxResults(2)
+                .getResultList())
+                .hasMessageContaining("fail_on_pagination_over_collection_fetch");
+    }
+
+    private int selectsFor(PageRequest pageable, int membersPerTeam) {
+        em.clear();
+        SqlCaptor.clear();
+        teamRosterService.findRosters(pageable, membersPerTeam);
+        return SqlCaptor.selects().size();
+    }
+
+    // 팀 6개가 딱 나누어 떨어지는 크기만 쓴다. (내용이 페이지보다 짧으면 count 쿼리를 생략하므로)
+    private static PageRequest page(int page, int size) {
+        return PageRequest.of(page, size, Sort.by("id"));
+    }
+}
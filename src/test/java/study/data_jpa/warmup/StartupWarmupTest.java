@@ -0,0 +1,94 @@
+package study.data_jpa.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import study.data_jpa.DataJpaApplication;
+import study.data_jpa.controller.MemberSortPolicy;
+import study.data_jpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StartupWarmupTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberSortPolicy memberSortPolicy;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void poolIsFilledAtStartupAndInstrumented() {
+        // 기동할 때 minimum-idle(10) 만큼 커넥션을 만들어 두었다.
+        assertThat(meterRegistry.get("hikaricp.connections").tag("pool", "datajpa-pool").gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get("hikaricp.connections.idle").tag("pool", "datajpa-pool").gauge()).isNotNull();
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "datajpa-pool").timer()).isNotNull();
+        assertThat(meterRegistry.get("hikaricp.connections.timeout").tag("pool", "datajpa-pool").counter()).isNotNull();
+    }
+
+    @Test
+    public void hotQueriesAreAlreadyCompiled() {
+        double misses = meterRegistry.get("hibernate.cache.query.plan").tag("result", "miss").functionCounter().count();
+
+        // when - /members 첫 요청과 같은 조회 (MemberSortPolicy 가 id 정렬을 붙인다)
+        memberRepository.findMemberDtoContent(memberSortPolicy.apply(PageRequest.of(0, 20)));
+        memberRepository.count();
+
+        // then - 워밍업에서 이미 SQL 로 변환해 두었으므로 플랜 캐시 miss 가 늘지 않는다.
+        assertThat(meterRegistry.get("hibernate.cache.query.plan").tag("result", "miss").functionCounter().count())
+                .isEqualTo(misses);
+    }
+
+    @Test
+    public void firstRequestAfterWarmupCompilesNoQueryAndOpensNoConnection() {
+        FirstRequest withoutWarmup = firstRequest(false);
+        FirstRequest withWarmup = firstRequest(true);
+
+        // 워밍업 없이는 첫 요청이 JPQL -> SQL 변환을 직접 한다.
+        assertThat(withoutWarmup.planMisses()).isPositive();
+        // 워밍업하면 플랜 캐시에서 꺼내고, 풀에 이미 있는 커넥션을 쓴다.
+        assertThat(withWarmup.planMisses()).isZero();
+        assertThat(withWarmup.connectionsCreated()).isZero();
+    }
+
+    // 애플리케이션을 새로 띄우고 (app.warmup.enabled 에 따라 워밍업한 뒤) /members 첫 요청이 하는 조회를 실행하는 동안의
+    // 플랜 캐시 miss 수와 새로 만든 커넥션 수
+    // 테스트 컨텍스트가 쓰는 테이블을 지우지 않도록 ddl-auto 는 끈다.
+    // (SpringApplicationBuilder.properties 는 기본값이라 application.yml 에 밀리므로 커맨드라인 인자로 넘긴다)
+    private FirstRequest firstRequest(boolean warmUp) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--app.warmup.enabled=" + warmUp,
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.datasource.hikari.pool-name=warmup-test-" + warmUp + "-" + System.nanoTime())) {
+            MemberRepository repository = context.getBean(MemberRepository.class);
+            Pageable pageable = context.getBean(MemberSortPolicy.class).apply(PageRequest.of(0, 20));
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            double misses = planMisses(registry);
+            long created = connectionsCreated(registry);
+
+            repository.findMemberDtoContent(pageable);
+            repository.count();
+            return new FirstRequest(planMisses(registry) - misses, connectionsCreated(registry) - created);
+        }
+    }
+
+    private static double planMisses(MeterRegistry registry) {
+        return registry.get("hibernate.cache.query.plan").tag("result", "miss").functionCounter().count();
+    }
+
+    private static long connectionsCreated(MeterRegistry registry) {
+        return registry.get("hikaricp.connections.creation").timer().count();
+    }
+
+    private record FirstRequest(double planMisses, long connectionsCreated) {
+    }
+}